@@ -0,0 +1,82 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import org.eclipse.microprofile.graphql.Mutation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+/** The api, types, and payloads used by the benchmarks: a scalar, a nested object, and a large list */
+public class Heroes {
+    public interface HeroesApi {
+        String greeting(String who);
+
+        Hero hero(String name);
+
+        List<Hero> heroes(int count);
+
+        @Mutation Hero add(Hero hero);
+    }
+
+    public static class Hero {
+        public String name;
+        public String realName;
+        public List<String> abilities;
+        public Team team;
+    }
+
+    public static class Team {
+        public String name;
+        public int size;
+    }
+
+    public static final int LARGE_LIST_SIZE = 1000;
+
+    static Hero spiderMan() {
+        Hero hero = new Hero();
+        hero.name = "Spider-Man";
+        hero.realName = "Peter Parker";
+        hero.abilities = asList("wall-crawling", "spider-sense", "web-slinging");
+        hero.team = new Team();
+        hero.team.name = "Avengers";
+        hero.team.size = 7;
+        return hero;
+    }
+
+    static String heroJson(int i) {
+        return "{\"name\":\"Hero " + i + "\",\"realName\":\"Person " + i + "\"," +
+            "\"abilities\":[\"wall-crawling\",\"spider-sense\",\"web-slinging\"]," +
+            "\"team\":{\"name\":\"Avengers\",\"size\":7}}";
+    }
+
+    /** The value of the data field for the method */
+    static String dataJson(String method) {
+        switch (method) {
+            case "greeting":
+                return "\"hi, foo\"";
+            case "hero":
+                return heroJson(0);
+            case "heroes":
+                StringBuilder out = new StringBuilder("[");
+                for (int i = 0; i < LARGE_LIST_SIZE; i++)
+                    out.append((i == 0) ? "" : ",").append(heroJson(i));
+                return out.append("]").toString();
+            default:
+                throw new IllegalArgumentException("unknown method " + method);
+        }
+    }
+
+    static byte[] responseJson(String method) {
+        return ("{\"data\":{\"" + method + "\":" + dataJson(method) + "}}").getBytes(UTF_8);
+    }
+
+    static MethodInfo methodInfo(String name, Object... args) {
+        for (Method method : HeroesApi.class.getMethods())
+            if (method.getName().equals(name))
+                return MethodInfo.of(method, args);
+        throw new IllegalArgumentException("unknown method " + name);
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.Heroes.HeroesApi;
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import com.github.t1.graphql.client.json.InMemoryTransport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.t1.graphql.client.Heroes.responseJson;
+
+/**
+ * A complete call of an api method, i.e. building and writing the request, and reading the response,
+ * against an {@link InMemoryTransport}, so no I/O is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1)
+public class ProxyBenchmark {
+    @Param({"greeting", "hero", "heroes"})
+    public String method;
+
+    @Param({"false", "true"})
+    public boolean variables;
+
+    private HeroesApi api;
+
+    @Setup public void setup() {
+        api = GraphQlClientBuilder.newBuilder()
+            .endpoint("urn:in-memory")
+            .transport(new InMemoryTransport(responseJson(method)))
+            .variables(variables)
+            .build(HeroesApi.class);
+    }
+
+    @Benchmark public Object call() {
+        switch (method) {
+            case "greeting":
+                return api.greeting("foo");
+            case "hero":
+                return api.hero("Spider-Man");
+            default:
+                return api.heroes(Heroes.LARGE_LIST_SIZE);
+        }
+    }
+}
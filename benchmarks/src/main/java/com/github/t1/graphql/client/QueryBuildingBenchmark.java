@@ -0,0 +1,55 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.t1.graphql.client.Heroes.methodInfo;
+import static com.github.t1.graphql.client.Heroes.spiderMan;
+
+/**
+ * Building the argument list of a request with the {@link RequestBuilder}, and building the whole
+ * {@link QueryTemplate} including the selection set, which the proxy does only once per method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1)
+public class QueryBuildingBenchmark {
+    /** A scalar argument, an object argument, and a method returning a large list */
+    @Param({"greeting", "add", "heroes"})
+    public String method;
+
+    private MethodInfo methodInfo;
+
+    @Setup public void setup() {
+        switch (method) {
+            case "greeting":
+                methodInfo = methodInfo("greeting", "foo");
+                break;
+            case "add":
+                methodInfo = methodInfo("add", spiderMan());
+                break;
+            default:
+                methodInfo = methodInfo("heroes", 1000);
+        }
+    }
+
+    @Benchmark public String arguments() {
+        return new RequestBuilder(methodInfo).build();
+    }
+
+    @Benchmark public QueryTemplate template() {
+        return QueryTemplate.of(methodInfo, false);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.json.JsonParserReader;
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.t1.graphql.client.Heroes.dataJson;
+import static com.github.t1.graphql.client.Heroes.methodInfo;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/** Decoding the data of a response from the json bytes with the {@link JsonParserReader} */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1)
+public class ResponseReadingBenchmark {
+    /** A scalar, a nested object, and a list of {@value Heroes#LARGE_LIST_SIZE} nested objects */
+    @Param({"greeting", "hero", "heroes"})
+    public String method;
+
+    private final JsonParserFactory parsers = Json.createParserFactory(null);
+    private MethodInfo methodInfo;
+    private byte[] json;
+
+    @Setup public void setup() {
+        methodInfo = methodInfo(method, (Object) null); // all methods have one parameter, which is not needed for reading
+        json = dataJson(method).getBytes(UTF_8);
+    }
+
+    @Benchmark public Object read() {
+        try (JsonParser parser = parsers.createParser(new ByteArrayInputStream(json), UTF_8)) {
+            return JsonParserReader.readFrom(methodInfo, parser);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.t1.graphql.client.reflection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/** The cached method handles of the {@link FieldInfo} compared to plain reflective field access */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime) @OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1)
+public class FieldAccessBenchmark {
+    @SuppressWarnings("unused")
+    private static class Target {
+        private String name = "foo";
+    }
+
+    private final Target target = new Target();
+    private FieldInfo fieldInfo;
+    private Field field;
+
+    @Setup public void setup() throws NoSuchFieldException {
+        fieldInfo = new TypeInfo(null, Target.class).field("name");
+        field = Target.class.getDeclaredField("name");
+        field.setAccessible(true);
+    }
+
+    @Benchmark public Object fieldInfoGet() {
+        return fieldInfo.get(target);
+    }
+
+    @Benchmark public Object reflectionGet() throws IllegalAccessException {
+        return field.get(target);
+    }
+
+    @Benchmark public void fieldInfoSet() {
+        fieldInfo.set(target, "bar");
+    }
+
+    @Benchmark public void reflectionSet() throws IllegalAccessException {
+        field.set(target, "bar");
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.Batcher.BatchedCall;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.json.JsonParserReader;
+import lombok.RequiredArgsConstructor;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static javax.json.JsonValue.ValueType.ARRAY;
+import static javax.json.JsonValue.ValueType.OBJECT;
+import static javax.json.JsonValue.ValueType.STRING;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+
+/**
+ * Reads the response for a batch of {@link BatchedCall}s and completes each call with the data for its alias.
+ * An error with a <code>path</code> starting with an alias fails only that call; other errors fail all calls.
+ * Data that can't be decoded also fails only that call, but its errors take precedence.
+ */
+@RequiredArgsConstructor
+class BatchResponseReader {
+    private final List<BatchedCall> calls;
+    private final GraphQlRequest request;
+    private final JsonParser parser;
+    private final Map<String, Object> values = new HashMap<>();
+    /** The decode failures by alias */
+    private final Map<String, GraphQlClientException> failures = new HashMap<>();
+    private JsonArray errors = JsonValue.EMPTY_JSON_ARRAY;
+
+    void read() {
+        if (parser.next() != START_OBJECT)
+            throw new GraphQlClientException("expected a json object response but got " + parser.getValue() + ":\n  " + request);
+        for (Event event = parser.next(); event != END_OBJECT; event = parser.next()) {
+            String key = parser.getString();
+            Event valueEvent = parser.next();
+            if ("errors".equals(key) && valueEvent == START_ARRAY)
+                errors = parser.getArray();
+            else if ("data".equals(key) && valueEvent == START_OBJECT)
+                readData();
+            else
+                skip(valueEvent);
+        }
+        calls.forEach(this::complete);
+    }
+
+    private void readData() {
+        Map<String, BatchedCall> aliases = new HashMap<>();
+        calls.forEach(call -> aliases.put(call.getAlias(), call));
+        for (Event event = parser.next(); event != END_OBJECT; event = parser.next()) {
+            BatchedCall call = aliases.get(parser.getString());
+            if (call == null)
+                skip(parser.next());
+            else
+                readValue(call);
+        }
+    }
+
+    /** The reader skips the rest of a value it can't decode, so we can continue with the next alias */
+    private void readValue(BatchedCall call) {
+        try {
+            values.put(call.getAlias(), JsonParserReader.readFrom(call.getMethod(), parser));
+        } catch (GraphQlClientException e) {
+            failures.put(call.getAlias(), e);
+        }
+    }
+
+    private void complete(BatchedCall call) {
+        JsonArray callErrors = errorsFor(call.getAlias());
+        GraphQlClientException failure = failures.get(call.getAlias());
+        if (!callErrors.isEmpty())
+            call.fail(withSuppressed(new GraphQlClientErrorsException(callErrors, request), failure));
+        else if (failure != null)
+            call.fail(failure);
+        else if (!values.containsKey(call.getAlias()))
+            call.fail(new GraphQlClientException("no data for '" + call.getMethod().getName() + "':\n  " + request));
+        else
+            call.complete(values.get(call.getAlias()));
+    }
+
+    private static GraphQlClientException withSuppressed(GraphQlClientException exception, GraphQlClientException suppressed) {
+        if (suppressed != null)
+            exception.addSuppressed(suppressed);
+        return exception;
+    }
+
+    private JsonArray errorsFor(String alias) {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        errors.stream()
+            .filter(error -> isFor(error, alias))
+            .forEach(builder::add);
+        return builder.build();
+    }
+
+    private boolean isFor(JsonValue error, String alias) {
+        if (error.getValueType() != OBJECT)
+            return true;
+        JsonObject object = error.asJsonObject();
+        if (!object.containsKey("path") || object.get("path").getValueType() != ARRAY)
+            return true;
+        JsonArray path = object.getJsonArray("path");
+        if (path.isEmpty() || path.get(0).getValueType() != STRING)
+            return true;
+        return path.getString(0).equals(alias);
+    }
+
+    private void skip(Event event) {
+        if (event == START_OBJECT)
+            parser.skipObject();
+        else if (event == START_ARRAY)
+            parser.skipArray();
+    }
+}
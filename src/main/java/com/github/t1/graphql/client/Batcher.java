@@ -0,0 +1,96 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import static com.github.t1.graphql.client.Futures.join;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Merges calls from concurrent threads into one request with aliased fields.
+ * The first caller of a batch is the leader: it waits until the batch is full or the window has elapsed,
+ * then sends the batch for all calls in it. The other callers wait for their result.
+ * No extra thread is needed. A batch with only one call is sent as a normal call.
+ * <p>
+ * Only calls with the same headers are batched, as the batch is sent with the headers of its calls:
+ * e.g. callers with different credentials must not get each other's data.
+ */
+@RequiredArgsConstructor
+class Batcher {
+    private final int maxSize;
+    private final long windowMillis;
+    private final BiFunction<MethodInfo, Map<String, List<Object>>, Object> single;
+    private final BiConsumer<List<BatchedCall>, Map<String, List<Object>>> batch;
+
+    /** The batches that new calls join, by the headers of their calls */
+    private final Map<Map<String, List<Object>>, List<BatchedCall>> open = new HashMap<>();
+
+    @RequiredArgsConstructor
+    static class BatchedCall {
+        @Getter private final MethodInfo method;
+        @Getter private final String alias;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        void complete(Object value) { result.complete(value); }
+
+        void fail(Throwable throwable) { result.completeExceptionally(throwable); }
+    }
+
+    /** @param headers the headers evaluated for this call; the batch is sent with them */
+    Object call(MethodInfo method, Map<String, List<Object>> headers) {
+        List<BatchedCall> calls;
+        BatchedCall call;
+        boolean leader;
+        synchronized (this) {
+            calls = open.get(headers);
+            leader = (calls == null);
+            if (leader) {
+                calls = new ArrayList<>(maxSize);
+                open.put(headers, calls);
+            }
+            call = new BatchedCall(method, "a" + calls.size());
+            calls.add(call);
+            if (calls.size() >= maxSize) {
+                open.remove(headers);
+                notifyAll();
+            }
+        }
+        if (leader)
+            send(awaitBatch(headers, calls), headers);
+        return join(call.result);
+    }
+
+    /** Wait until the batch is full or the window has elapsed, then close it */
+    private synchronized List<BatchedCall> awaitBatch(Map<String, List<Object>> headers, List<BatchedCall> calls) {
+        long deadline = System.nanoTime() + MILLISECONDS.toNanos(windowMillis);
+        try {
+            for (long remaining = windowMillis; open.get(headers) == calls && remaining > 0; remaining = NANOSECONDS.toMillis(deadline - System.nanoTime()))
+                wait(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // send now
+        }
+        open.remove(headers, calls);
+        return calls;
+    }
+
+    private void send(List<BatchedCall> calls, Map<String, List<Object>> headers) {
+        try {
+            if (calls.size() == 1)
+                calls.get(0).complete(single.apply(calls.get(0).method, headers));
+            else
+                batch.accept(calls, headers);
+        } catch (RuntimeException | Error e) {
+            calls.forEach(call -> call.fail(e)); // no effect on the calls that are already completed
+        }
+    }
+}
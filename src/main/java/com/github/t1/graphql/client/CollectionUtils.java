@@ -7,7 +7,6 @@ import javax.ws.rs.core.MultivaluedMap;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -16,32 +15,10 @@ import java.util.function.Supplier;
 import java.util.stream.Collector;
 
 import static java.util.Collections.emptySet;
-import static java.util.Collections.singleton;
 import static java.util.stream.Collector.Characteristics.IDENTITY_FINISH;
 
 @UtilityClass
 public class CollectionUtils {
-    public static <K, V> Collector<Entry<K, V>, MultivaluedMap<K, V>, MultivaluedMap<K, V>> toMultivaluedMap() {
-        return new Collector<Entry<K, V>, MultivaluedMap<K, V>, MultivaluedMap<K, V>>() {
-            @Override public Supplier<MultivaluedMap<K, V>> supplier() { return MultivaluedHashMap::new; }
-
-            @Override public BiConsumer<MultivaluedMap<K, V>, Entry<K, V>> accumulator() {
-                return (map, entry) -> map.add(entry.getKey(), entry.getValue());
-            }
-
-            @Override public BinaryOperator<MultivaluedMap<K, V>> combiner() {
-                return (a, b) -> {
-                    a.putAll(b);
-                    return a;
-                };
-            }
-
-            @Override public Function<MultivaluedMap<K, V>, MultivaluedMap<K, V>> finisher() { return Function.identity(); }
-
-            @Override public Set<Characteristics> characteristics() { return singleton(IDENTITY_FINISH); }
-        };
-    }
-
     public static <T> Collector<T, List<T>, T[]> toArray(Class<T> componentType) {
         return new Collector<T, List<T>, T[]>() {
             @Override public Supplier<List<T>> supplier() { return ArrayList::new; }
@@ -3,21 +3,41 @@ package com.github.t1.graphql.client;
 import com.github.t1.graphql.client.api.GraphQlClientApi;
 import com.github.t1.graphql.client.api.GraphQlClientBuilder;
 import com.github.t1.graphql.client.api.GraphQlClientHeader;
-import com.github.t1.graphql.client.reflection.MethodInfo;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
 import java.lang.reflect.Proxy;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import static java.lang.reflect.Modifier.isStatic;
+import static java.util.Collections.unmodifiableList;
+
+/** Not thread-safe, but the apis built are: they take a snapshot of the configuration */
 public class GraphQlClientBuilderImpl implements GraphQlClientBuilder {
     private String configKey = null;
-    private Client client = DEFAULT_CLIENT;
+    private Client client = null;
+    private GraphQlTransport transport = null;
+    private Executor executor = null;
     private URI endpoint;
+    private Boolean variables = null;
+    private Boolean persistedQueries = null;
+    private Boolean singleFlight = null;
+    private Integer batchSize = null;
+    private Long batchWindowMillis = null;
+    private Boolean httpGet = null;
+    private Integer maxGetUrlLength = null;
+    private Boolean gzip = null;
+    private Integer gzipRequestThreshold = null;
     private final List<GraphQlClientHeader> headers = new ArrayList<>();
 
     @Override public GraphQlClientBuilder header(GraphQlClientHeader header) {
@@ -35,38 +55,144 @@ public class GraphQlClientBuilderImpl implements GraphQlClientBuilder {
         return this;
     }
 
+    @Override public GraphQlClientBuilder transport(GraphQlTransport transport) {
+        this.transport = transport;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder variables(boolean variables) {
+        this.variables = variables;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder persistedQueries(boolean persistedQueries) {
+        this.persistedQueries = persistedQueries;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder singleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder batchWindowMillis(long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder httpGet(boolean httpGet) {
+        this.httpGet = httpGet;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder maxGetUrlLength(int maxGetUrlLength) {
+        this.maxGetUrlLength = maxGetUrlLength;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    @Override public GraphQlClientBuilder gzipRequestThreshold(int gzipRequestThreshold) {
+        this.gzipRequestThreshold = gzipRequestThreshold;
+        return this;
+    }
+
     @Override public GraphQlClientBuilder configKey(String configKey) {
         this.configKey = configKey;
         return this;
     }
 
     @Override public <T> T build(Class<T> apiClass) {
-        readConfig(apiClass.getAnnotation(GraphQlClientApi.class));
-
-        WebTarget webTarget = client.target(resolveEndpoint(apiClass));
-        GraphQlClientProxy graphQlClient = new GraphQlClientProxy(webTarget, headers);
+        GraphQlClientProxy graphQlClient = new GraphQlClientProxy(config(apiClass));
+        Stream.of(apiClass.getMethods())
+            .filter(method -> !method.isDefault() && !isStatic(method.getModifiers()))
+            .forEach(graphQlClient::prepare);
         return apiClass.cast(Proxy.newProxyInstance(apiClass.getClassLoader(), new Class<?>[]{apiClass},
-            (proxy, method, args) -> graphQlClient.invoke(MethodInfo.of(method, args))));
+            graphQlClient));
+    }
+
+    /** Take a snapshot, so changing this builder later doesn't change the apis built before */
+    private GraphQlClientConfig config(Class<?> apiClass) {
+        GraphQlClientApi annotation = apiClass.getAnnotation(GraphQlClientApi.class);
+        String configKey = configKey(apiClass, annotation);
+        return GraphQlClientConfig.builder()
+            .transport(transport())
+            .executor((executor == null) ? ForkJoinPool.commonPool() : executor)
+            .endpoint(endpoint(configKey, annotation))
+            .headers(unmodifiableList(new ArrayList<>(headers)))
+            .variables(resolve(variables, annotation, GraphQlClientApi::variables, false))
+            .persistedQueries(resolve(persistedQueries, annotation, GraphQlClientApi::persistedQueries, false))
+            .singleFlight(resolve(singleFlight, annotation, GraphQlClientApi::singleFlight, false))
+            .batchSize(resolve(batchSize, annotation, GraphQlClientApi::batchSize, 0))
+            .batchWindowMillis(resolve(batchWindowMillis, annotation, GraphQlClientApi::batchWindowMillis, DEFAULT_BATCH_WINDOW_MILLIS))
+            .httpGet(resolve(httpGet, annotation, GraphQlClientApi::httpGet, false))
+            .maxGetUrlLength(resolve(maxGetUrlLength, annotation, GraphQlClientApi::maxGetUrlLength, DEFAULT_MAX_GET_URL_LENGTH))
+            .gzip((gzip == null) ? config(configKey, "gzip", Boolean.class).orElse(true) : gzip)
+            .gzipRequestThreshold((gzipRequestThreshold == null)
+                ? config(configKey, "gzip-request-threshold", Integer.class).orElse(-1) : gzipRequestThreshold)
+            .build();
     }
 
-    private void readConfig(GraphQlClientApi config) {
-        if (config == null)
-            return;
-        if (this.endpoint == null && !config.endpoint().isEmpty())
-            this.endpoint = URI.create(config.endpoint());
-        if (this.configKey == null && !config.configKey().isEmpty())
-            this.configKey = config.configKey();
+    /** The value set in this builder, or else the annotation attribute, or else the default */
+    private static <V> V resolve(V value, GraphQlClientApi annotation, Function<GraphQlClientApi, V> attribute, V defaultValue) {
+        if (value != null)
+            return value;
+        return (annotation == null) ? defaultValue : attribute.apply(annotation);
     }
 
-    private URI resolveEndpoint(Class<?> apiClass) {
+    private String configKey(Class<?> apiClass, GraphQlClientApi annotation) {
+        if (configKey != null)
+            return configKey;
+        if (annotation != null && !annotation.configKey().isEmpty())
+            return annotation.configKey();
+        return apiClass.getName();
+    }
+
+    private GraphQlTransport transport() {
+        if (transport != null)
+            return transport;
+        return new JaxRsTransport((client == null) ? DefaultClient.INSTANCE : client);
+    }
+
+    private URI endpoint(String configKey, GraphQlClientApi annotation) {
         if (endpoint != null)
             return endpoint;
-        return ConfigProvider.getConfig().getValue(configKey(apiClass) + "/mp-graphql/url", URI.class);
+        if (annotation != null && !annotation.endpoint().isEmpty())
+            return URI.create(annotation.endpoint());
+        return ConfigProvider.getConfig().getValue(configKey + "/mp-graphql/url", URI.class);
+    }
+
+    /** Only the endpoint requires MP Config; the optional settings work without an implementation, too */
+    private static <T> Optional<T> config(String configKey, String name, Class<T> type) {
+        return mpConfig().flatMap(config -> config.getOptionalValue(configKey + "/mp-graphql/" + name, type));
     }
 
-    private String configKey(Class<?> apiClass) {
-        return (configKey == null) ? apiClass.getName() : configKey;
+    private static Optional<Config> mpConfig() {
+        try {
+            return Optional.of(ConfigProvider.getConfig());
+        } catch (IllegalStateException | NoClassDefFoundError e) {
+            return Optional.empty();
+        }
     }
 
-    private static final Client DEFAULT_CLIENT = ClientBuilder.newClient();
+    private static final long DEFAULT_BATCH_WINDOW_MILLIS = 2;
+    private static final int DEFAULT_MAX_GET_URL_LENGTH = 2048;
+
+    /** Lazy, so JAX-RS is not required when another transport is used */
+    private static class DefaultClient {
+        private static final Client INSTANCE = ClientBuilder.newClient();
+    }
 }
@@ -0,0 +1,33 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import lombok.Builder;
+import lombok.Value;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * The resolved configuration of one api: from the builder, the {@link com.github.t1.graphql.client.api.GraphQlClientApi}
+ * annotation, MP Config, or the defaults. It's a snapshot that doesn't change when the builder is changed later.
+ */
+@Value @Builder
+class GraphQlClientConfig {
+    GraphQlTransport transport;
+    /** Decodes the responses of async calls */
+    Executor executor;
+    URI endpoint;
+    /** unmodifiable */
+    List<GraphQlClientHeader> headers;
+    boolean variables;
+    boolean persistedQueries;
+    boolean singleFlight;
+    int batchSize;
+    long batchWindowMillis;
+    boolean httpGet;
+    int maxGetUrlLength;
+    boolean gzip;
+    int gzipRequestThreshold;
+}
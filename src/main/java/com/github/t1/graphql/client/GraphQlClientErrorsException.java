@@ -0,0 +1,38 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import lombok.Getter;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import static javax.json.JsonValue.ValueType.OBJECT;
+
+/** The service responded with GraphQL <code>errors</code> */
+class GraphQlClientErrorsException extends GraphQlClientException {
+    @Getter private final JsonArray errors;
+
+    GraphQlClientErrorsException(JsonArray errors, GraphQlRequest request) {
+        super("errors from service: " + errors + ":\n  " + request);
+        this.errors = errors;
+    }
+
+    /** The service doesn't know the hash of a persisted query, by message or by extension code */
+    boolean isPersistedQueryNotFound() {
+        return errors.stream()
+            .filter(error -> error.getValueType() == OBJECT)
+            .map(JsonValue::asJsonObject)
+            .anyMatch(error -> PERSISTED_QUERY_NOT_FOUND.equals(error.getString("message", null))
+                || PERSISTED_QUERY_NOT_FOUND_CODE.equals(code(error)));
+    }
+
+    private String code(JsonObject error) {
+        if (!error.containsKey("extensions") || error.get("extensions").getValueType() != OBJECT)
+            return null;
+        return error.getJsonObject("extensions").getString("code", null);
+    }
+
+    private static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+    private static final String PERSISTED_QUERY_NOT_FOUND_CODE = "PERSISTED_QUERY_NOT_FOUND";
+}
@@ -1,125 +1,485 @@
 package com.github.t1.graphql.client;
 
+import com.github.t1.graphql.client.ResultCache.Validated;
+import com.github.t1.graphql.client.api.Cached;
 import com.github.t1.graphql.client.api.GraphQlClientException;
 import com.github.t1.graphql.client.api.GraphQlClientHeader;
-import com.github.t1.graphql.client.json.JsonReader;
-import com.github.t1.graphql.client.reflection.FieldInfo;
+import com.github.t1.graphql.client.api.HttpGet;
 import com.github.t1.graphql.client.reflection.MethodInfo;
-import com.github.t1.graphql.client.reflection.TypeInfo;
-import lombok.RequiredArgsConstructor;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.json.Json;
 import javax.json.JsonObject;
-import javax.json.JsonObjectBuilder;
-import javax.json.JsonValue;
-import javax.ws.rs.client.Entity;
-import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.StatusType;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 
-import static com.github.t1.graphql.client.CollectionUtils.toMultivaluedMap;
-import static java.util.stream.Collectors.joining;
-import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
-import static javax.ws.rs.core.Response.Status.Family.SUCCESSFUL;
-import static lombok.AccessLevel.PACKAGE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.function.Function.identity;
 
+/**
+ * Handles the calls to an api proxy. It's thread-safe, so one instance can be shared by all threads:
+ * the configuration is final and immutable, and the caches and other state are concurrent.
+ * The methods are prepared before the proxy is published.
+ */
 @Slf4j
-@RequiredArgsConstructor(access = PACKAGE)
-class GraphQlClientProxy {
+class GraphQlClientProxy implements InvocationHandler {
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final int NOT_MODIFIED = 304;
+    /** Looking up the json provider for every response is expensive */
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(null);
 
-    private final WebTarget target;
-    private final List<GraphQlClientHeader> headers;
+    static GraphQlClientProxy of(Object api) {
+        if (api == null || !Proxy.isProxyClass(api.getClass()) || !(Proxy.getInvocationHandler(api) instanceof GraphQlClientProxy))
+            throw new GraphQlClientException("not a GraphQL client api: " + api);
+        return (GraphQlClientProxy) Proxy.getInvocationHandler(api);
+    }
+
+    private final GraphQlTransport transport;
+    /** Decodes the responses of async calls, so the completion thread of the transport isn't blocked */
+    private final Executor executor;
+    private final URI endpoint;
+    /** The headers with a constant value, plus the <code>Accept-Encoding</code>; unmodifiable and shared by all requests */
+    private final Map<String, List<Object>> constantHeaders;
+    /** The headers with a value supplier, evaluated for every request */
+    private final List<GraphQlClientHeader> dynamicHeaders = new ArrayList<>();
+    private final boolean variables;
+    private final boolean persistedQueries;
+    /** <code>null</code> if single-flight is disabled */
+    private final SingleFlight singleFlight;
+    /** For the {@link Cached} calls, as they return a {@link Validated} instead of the value; <code>null</code> if single-flight is disabled */
+    private final SingleFlight validatedSingleFlight;
+    /** <code>null</code> if batching is disabled */
+    private final Batcher batcher;
+    /** Send queries as GET by default; can be overridden with {@link HttpGet} */
+    private final boolean httpGet;
+    private final int maxGetUrlLength;
+    /** Accept compressed responses */
+    private final boolean gzip;
+    /** Compress requests of at least this size; negative for never */
+    private final int gzipRequestThreshold;
+    private final Map<Object, QueryTemplate> queryTemplates = new ConcurrentHashMap<>();
+    private final Map<Object, ResultCache> resultCaches = new ConcurrentHashMap<>();
+    /** The same caches by java method name, for the statistics; overloaded methods have more than one */
+    private final Map<String, List<ResultCache>> resultCachesByName = new ConcurrentHashMap<>();
+    /** The keys of the methods to send as GET */
+    private final Set<Object> getMethods = ConcurrentHashMap.newKeySet();
+
+    GraphQlClientProxy(GraphQlClientConfig config) {
+        this.transport = config.getTransport();
+        this.executor = config.getExecutor();
+        this.endpoint = config.getEndpoint();
+        Map<String, List<Object>> constantHeaders = new LinkedHashMap<>();
+        for (GraphQlClientHeader header : config.getHeaders())
+            if (header.isConstant())
+                addHeader(constantHeaders, header.getName(), header.getValue());
+            else
+                this.dynamicHeaders.add(header);
+        if (config.isGzip())
+            constantHeaders.put(ACCEPT_ENCODING, singletonList("gzip, deflate"));
+        this.constantHeaders = unmodifiableMap(constantHeaders);
+        this.variables = config.isVariables();
+        this.persistedQueries = config.isPersistedQueries();
+        this.singleFlight = config.isSingleFlight() ? new SingleFlight() : null;
+        this.validatedSingleFlight = config.isSingleFlight() ? new SingleFlight() : null;
+        this.httpGet = config.isHttpGet();
+        this.maxGetUrlLength = config.getMaxGetUrlLength();
+        this.gzip = config.isGzip();
+        this.gzipRequestThreshold = config.getGzipRequestThreshold();
+        this.batcher = (config.getBatchSize() > 1)
+            ? new Batcher(config.getBatchSize(), config.getBatchWindowMillis(), this::invokeDirectly, this::callBatch)
+            : null;
+    }
+
+    /**
+     * Build the query template in advance, so no reflection on the api types is required for the first call.
+     * A method with unsupported types doesn't prevent the other methods from being used; it fails when it's called.
+     */
+    void prepare(Method javaMethod) {
+        MethodInfo method;
+        try {
+            method = MethodInfo.of(javaMethod, new Object[javaMethod.getParameterCount()]);
+            queryTemplate(method);
+        } catch (RuntimeException e) {
+            log.warn("can't prepare {}; it will fail when it's called: {}", javaMethod, e.getMessage());
+            return;
+        }
+        if (method.isQuery() && method.getAnnotation(HttpGet.class).map(HttpGet::value).orElse(httpGet))
+            getMethods.add(method.getKey());
+        method.getAnnotation(Cached.class).ifPresent(cached -> {
+            if (!isBlockingQuery(method))
+                throw new GraphQlClientException("@Cached is only allowed on blocking queries, but " + method + " is not");
+            ResultCache resultCache = new ResultCache(cached);
+            resultCaches.put(method.getKey(), resultCache);
+            resultCachesByName.computeIfAbsent(javaMethod.getName(), name -> new CopyOnWriteArrayList<>()).add(resultCache);
+        });
+    }
+
+    ResultCache resultCache(String methodName) {
+        List<ResultCache> caches = resultCachesByName.get(methodName);
+        if (caches == null)
+            throw new GraphQlClientException("no @Cached method '" + methodName + "'");
+        if (caches.size() > 1)
+            throw new GraphQlClientException("ambiguous @Cached method '" + methodName + "'; it's overloaded");
+        return caches.get(0);
+    }
+
+    @Override public Object invoke(Object proxy, Method method, Object[] args) {
+        return invoke(MethodInfo.of(method, args));
+    }
 
+    /** The dynamic headers are evaluated only once, so the request is sent with the same values it's keyed by */
     Object invoke(MethodInfo method) {
-        String request = request(method);
+        Map<String, List<Object>> headers = buildHeaders();
+        ResultCache resultCache = resultCaches.get(method.getKey());
+        if (resultCache != null) {
+            Object key = requestKey(method, headers);
+            return resultCache.get(key, stale -> invokeValidated(method, key, stale, headers));
+        }
+        return invokeSingleFlight(method, headers);
+    }
 
-        log.info("request graphql: {}", request);
-        String response = post(request);
-        log.info("response graphql: {}", response);
+    /** Cached queries need the validators from the response headers, so they are not batched */
+    private Validated invokeValidated(MethodInfo method, Object key, Validated stale, Map<String, List<Object>> headers) {
+        Supplier<Object> load = () -> {
+            QueryTemplate template = queryTemplate(method);
+            return invoke(method, template, template.build(method), this.variables ? method : null,
+                (m, request) -> callValidated(m, request, stale, headers));
+        };
+        return (Validated) ((validatedSingleFlight == null) ? load.get() : validatedSingleFlight.call(key, load));
+    }
 
-        return fromJson(method, request, response);
+    private Object invokeSingleFlight(MethodInfo method, Map<String, List<Object>> headers) {
+        if (singleFlight != null && isBlockingQuery(method))
+            return singleFlight.call(requestKey(method, headers), () -> invokeBatched(method, headers));
+        return invokeBatched(method, headers);
     }
 
-    private String request(MethodInfo method) {
-        JsonObjectBuilder request = Json.createObjectBuilder();
-        request.add("query",
-            operation(method)
-                + " { "
-                + new RequestBuilder(method).build()
-                + fields(method.getReturnType())
-                + " }");
-        return request.build().toString();
+    private Object invokeBatched(MethodInfo method, Map<String, List<Object>> headers) {
+        if (batcher != null && isBlockingQuery(method))
+            return batcher.call(method, headers);
+        return invokeDirectly(method, headers);
     }
 
-    private String operation(MethodInfo method) {
-        return method.isQuery() ? "query" : "mutation";
+    private boolean isBlockingQuery(MethodInfo method) {
+        return method.isQuery() && !method.isAsync() && !method.getReturnType().isPublisher();
     }
 
+    /**
+     * The method (different methods can have the same document but different return types),
+     * the document and the variables, i.e. all argument values,
+     * and the headers, so e.g. callers with different credentials don't share results.
+     */
+    private Object requestKey(MethodInfo method, Map<String, List<Object>> headers) {
+        List<Object> key = new ArrayList<>(3);
+        key.add(method.getKey());
+        key.add(request(queryTemplate(method).build(method), this.variables ? method : null, null).toString());
+        key.add(headers);
+        return key;
+    }
 
-    private String fields(TypeInfo type) {
-        while (type.isOptional())
-            type = type.getItemType();
-        if (type.isScalar()) {
-            return "";
-        } else if (type.isCollection()) {
-            return fields(type.getItemType());
-        } else {
-            return type.fields()
-                .map(this::field)
-                .collect(joining(" ", " {", "}"));
+    private Object invokeDirectly(MethodInfo method, Map<String, List<Object>> headers) {
+        QueryTemplate template = queryTemplate(method);
+        String query = template.build(method);
+        MethodInfo variables = this.variables ? method : null;
+        if (method.isAsync())
+            return invokeAsync(method, template, query, variables, headers).toCompletableFuture();
+        if (method.getReturnType().isPublisher())
+            return publisher(method, template, query, variables, headers);
+        return invoke(method, template, query, variables, (m, request) -> call(m, request, headers));
+    }
+
+    private <T> T invoke(MethodInfo method, QueryTemplate template, String query, MethodInfo variables,
+                         BiFunction<MethodInfo, GraphQlRequest, T> call) {
+        if (persistedQueries)
+            return invokePersisted(method, template.hash(query), query, variables, call);
+        return call.apply(method, request(query, variables, null));
+    }
+
+    /**
+     * First send only the hash of the query. If the service doesn't know that hash yet,
+     * send the query again, so the service can register it.
+     */
+    private <T> T invokePersisted(MethodInfo method, String hash, String query, MethodInfo variables,
+                                  BiFunction<MethodInfo, GraphQlRequest, T> call) {
+        JsonObject extensions = persistedQueryExtensions(hash);
+        try {
+            return call.apply(method, request(null, variables, extensions));
+        } catch (GraphQlClientErrorsException e) {
+            if (!e.isPersistedQueryNotFound())
+                throw e;
+            log.debug("persisted query {} not found; send full query", hash);
+            return call.apply(method, request(query, variables, extensions));
         }
     }
 
-    private String field(FieldInfo field) {
-        TypeInfo type = field.getType();
-        if (type.isScalar() || type.isCollection() && type.getItemType().isScalar()) {
-            return field.getName();
-        } else {
-            return field.getName() + fields(type);
+    /** Separate method, so the reactive streams api is only required when it's actually used */
+    private Object publisher(MethodInfo method, QueryTemplate template, String query, MethodInfo variables,
+                             Map<String, List<Object>> headers) {
+        return new ItemsPublisher(() -> invoke(method, template, query, variables, (m, request) -> callItems(m, request, headers)));
+    }
+
+    /** Like the blocking calls, but don't wait for the response */
+    private CompletionStage<Object> invokeAsync(MethodInfo method, QueryTemplate template, String query, MethodInfo variables,
+                                                Map<String, List<Object>> headers) {
+        if (!persistedQueries)
+            return callAsync(method, request(query, variables, null), headers);
+        String hash = template.hash(query);
+        JsonObject extensions = persistedQueryExtensions(hash);
+        return callAsync(method, request(null, variables, extensions), headers)
+            .thenApply(CompletableFuture::completedFuture)
+            .exceptionally(throwable -> {
+                Throwable cause = (throwable instanceof CompletionException) ? throwable.getCause() : throwable;
+                if (!isPersistedQueryNotFound(cause))
+                    throw new CompletionException(cause);
+                log.debug("persisted query {} not found; send full query", hash);
+                return callAsync(method, request(query, variables, extensions), headers).toCompletableFuture();
+            })
+            .thenCompose(identity());
+    }
+
+    private static boolean isPersistedQueryNotFound(Throwable throwable) {
+        return throwable instanceof GraphQlClientErrorsException
+            && ((GraphQlClientErrorsException) throwable).isPersistedQueryNotFound();
+    }
+
+    private JsonObject persistedQueryExtensions(String hash) {
+        return Json.createObjectBuilder()
+            .add("persistedQuery", Json.createObjectBuilder()
+                .add("version", 1)
+                .add("sha256Hash", hash))
+            .build();
+    }
+
+    private GraphQlRequest request(String query, MethodInfo variables, JsonObject extensions) {
+        boolean hasVariables = variables != null && variables.getParameterCount() > 0;
+        return new GraphQlRequest(query, hasVariables ? variables : null, extensions);
+    }
+
+    private QueryTemplate queryTemplate(MethodInfo method) {
+        return queryTemplates.computeIfAbsent(method.getKey(), key -> QueryTemplate.of(method, variables));
+    }
+
+    private Object call(MethodInfo method, GraphQlRequest request, Map<String, List<Object>> headers) {
+        log.debug("request graphql: {}", request);
+        return read(method, request, transport.send(transportRequest(method, request, null, headers)));
+    }
+
+    private CompletionStage<Object> callAsync(MethodInfo method, GraphQlRequest request, Map<String, List<Object>> headers) {
+        log.debug("request graphql async: {}", request);
+        return transport.sendAsync(transportRequest(method, request, null, headers))
+            .thenApplyAsync(response -> read(method, request, response), executor);
+    }
+
+    /** If the <code>stale</code> result has not been modified, reuse it without reading the response */
+    private Validated callValidated(MethodInfo method, GraphQlRequest request, Validated stale, Map<String, List<Object>> headers) {
+        log.debug("request graphql: {}", request);
+        GraphQlTransportResponse response = transport.send(transportRequest(method, request, stale, headers));
+        String entityTag = response.getHeader(ETAG);
+        String lastModified = response.getHeader(LAST_MODIFIED);
+        if (stale != null && response.getStatus() == NOT_MODIFIED) {
+            log.debug("response graphql: not modified");
+            response.close();
+            return new Validated(stale.getValue(),
+                (entityTag == null) ? stale.getEntityTag() : entityTag,
+                (lastModified == null) ? stale.getLastModified() : lastModified,
+                true);
+        }
+        return new Validated(read(method, request, response), entityTag, lastModified, false);
+    }
+
+    /**
+     * @param stale if not <code>null</code>, send the conditional headers to revalidate it
+     * @param headers as evaluated for this call; not modified
+     */
+    private GraphQlTransportRequest transportRequest(MethodInfo method, GraphQlRequest request, Validated stale,
+                                                     Map<String, List<Object>> headers) {
+        Map<String, String> parameters = getParameters(method, request);
+        if (stale != null)
+            headers = new LinkedHashMap<>(headers);
+        if (stale != null && stale.getEntityTag() != null)
+            headers.put(IF_NONE_MATCH, singletonList(stale.getEntityTag()));
+        if (stale != null && stale.getLastModified() != null)
+            headers.put(IF_MODIFIED_SINCE, singletonList(stale.getLastModified()));
+        return (parameters == null)
+            ? post(request, headers)
+            : new GraphQlTransportRequest("GET", endpoint, parameters, headers, null, null);
+    }
+
+    private GraphQlTransportRequest post(GraphQlRequest request, Map<String, List<Object>> headers) {
+        if (gzipRequestThreshold < 0)
+            return new GraphQlTransportRequest("POST", endpoint, emptyMap(), headers, null, request::write);
+        ThresholdBuffer body = new ThresholdBuffer(gzipRequestThreshold);
+        if (body.fill(request))
+            return new GraphQlTransportRequest("POST", endpoint, emptyMap(), headers, null, body::writeTo);
+        return new GraphQlTransportRequest("POST", endpoint, emptyMap(), headers, "gzip", output -> {
+            try (GZIPOutputStream gzipped = new GZIPOutputStream(output)) {
+                request.write(gzipped);
+            }
+        });
+    }
+
+    /** The url-encoded query parameters for a GET request, or <code>null</code>, if the request should be POSTed */
+    private Map<String, String> getParameters(MethodInfo method, GraphQlRequest request) {
+        if (!getMethods.contains(method.getKey()))
+            return null;
+        Map<String, String> parameters = new LinkedHashMap<>();
+        int length = endpoint.toString().length();
+        for (Map.Entry<String, String> parameter : request.getParameters(queryTemplate(method).getOperationName()).entrySet()) {
+            String value = urlEncode(parameter.getValue());
+            parameters.put(parameter.getKey(), value);
+            length += 1 + parameter.getKey().length() + 1 + value.length();
         }
+        if (length > maxGetUrlLength) {
+            log.debug("url would be {} characters long; POST instead of GET", length);
+            return null;
+        }
+        return parameters;
+    }
+
+    /** Percent-encode everything, so braces in the values are not taken as uri templates */
+    @SneakyThrows(UnsupportedEncodingException.class)
+    private static String urlEncode(String value) {
+        return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
     }
 
-    private String post(String request) {
-        Response response = target
-            .request(APPLICATION_JSON_TYPE)
-            .headers(buildHeaders())
-            .post(Entity.json(request));
-        StatusType status = response.getStatusInfo();
-        if (status.getFamily() != SUCCESSFUL)
+    /**
+     * The arguments are always inlined, and persisted queries are not used, as the documents vary with every batch.
+     * All calls in the batch have these headers.
+     */
+    private void callBatch(List<Batcher.BatchedCall> calls, Map<String, List<Object>> headers) {
+        StringBuilder document = new StringBuilder("query {");
+        calls.forEach(call -> document.append(' ').append(queryTemplate(call.getMethod()).field(call.getMethod(), call.getAlias())));
+        GraphQlRequest request = new GraphQlRequest(document.append(" }").toString(), null, null);
+        log.debug("request graphql batch: {}", request);
+        try (JsonParser parser = parser(checkStatus(transport.send(post(request, headers))))) {
+            new BatchResponseReader(calls, request, parser).read();
+        }
+    }
+
+    private ResponseReader.Items callItems(MethodInfo method, GraphQlRequest request, Map<String, List<Object>> headers) {
+        log.debug("request graphql items: {}", request);
+        JsonParser parser = parser(checkStatus(transport.send(transportRequest(method, request, null, headers))));
+        try {
+            return new ResponseReader(method, request, parser).readItems();
+        } catch (RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    private Object read(MethodInfo method, GraphQlRequest request, GraphQlTransportResponse response) {
+        try (JsonParser parser = parser(checkStatus(response))) {
+            return new ResponseReader(method, request, parser).read();
+        }
+    }
+
+    private GraphQlTransportResponse checkStatus(GraphQlTransportResponse response) {
+        if (response.getStatus() / 100 != 2)
             throw new GraphQlClientException("expected successful status code but got " +
-                status.getStatusCode() + " " + status.getReasonPhrase() + ":\n" +
-                response.readEntity(String.class));
-        return response.readEntity(String.class);
+                (response.getStatus() + " " + response.getReasonPhrase()).trim() + ":\n" +
+                readString(body(response)));
+        return response;
     }
 
-    private MultivaluedMap<String, Object> buildHeaders() {
-        return headers.stream()
-            .peek(header -> log.debug("add header '{}'", header.getName())) // don't log values; could contain tokens
-            .map(GraphQlClientHeader::toEntry)
-            .collect(toMultivaluedMap());
+    /** Stream the response, unless we want to log it */
+    private JsonParser parser(GraphQlTransportResponse response) {
+        InputStream body = body(response);
+        if (!log.isDebugEnabled())
+            return PARSERS.createParser(body);
+        String string = readString(body);
+        log.debug("response graphql: {}", string);
+        return PARSERS.createParser(new StringReader(string));
     }
 
-    private Object fromJson(MethodInfo method, String request, String response) {
-        JsonObject responseJson = readResponse(request, response);
-        JsonValue value = getData(method, responseJson);
-        return JsonReader.readFrom(method, value);
+    /** Decompress while reading, without buffering the whole response */
+    @SneakyThrows(IOException.class)
+    private static InputStream body(GraphQlTransportResponse response) {
+        InputStream body = response.getBody();
+        String encoding = response.getHeader(CONTENT_ENCODING);
+        if (encoding == null)
+            return body;
+        switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(body);
+            case "deflate":
+                return new InflaterInputStream(body);
+            default:
+                return body;
+        }
     }
 
-    private JsonObject readResponse(String request, String response) {
-        JsonObject responseJson = Json.createReader(new StringReader(response)).readObject();
-        if (responseJson.containsKey("errors") && !responseJson.isNull("errors"))
-            throw new GraphQlClientException("errors from service: " + responseJson.getJsonArray("errors") + ":\n  " + request);
-        return responseJson;
+    @SneakyThrows(IOException.class)
+    private static String readString(InputStream body) {
+        try (InputStream stream = body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int n = stream.read(buffer); n >= 0; n = stream.read(buffer))
+                out.write(buffer, 0, n);
+            return new String(out.toByteArray(), UTF_8);
+        }
     }
 
-    private JsonValue getData(MethodInfo method, JsonObject responseJson) {
-        JsonObject data = responseJson.getJsonObject("data");
-        if (!data.containsKey(method.getName()))
-            throw new GraphQlClientException("no data for '" + method.getName() + "':\n  " + data);
-        return data.get(method.getName());
+    /** The constant headers are shared, so copy them before adding more */
+    private Map<String, List<Object>> buildHeaders() {
+        if (dynamicHeaders.isEmpty())
+            return constantHeaders;
+        Map<String, List<Object>> map = new LinkedHashMap<>(constantHeaders);
+        for (GraphQlClientHeader header : dynamicHeaders) {
+            log.debug("add header '{}'", header.getName()); // don't log values; could contain tokens
+            addHeader(map, header.getName(), header.getValue());
+        }
+        return map;
+    }
+
+    private static void addHeader(Map<String, List<Object>> map, String name, Object value) {
+        List<Object> values = map.get(name);
+        if (values == null) {
+            map.put(name, singletonList(value));
+        } else {
+            List<Object> more = new ArrayList<>(values);
+            more.add(value);
+            map.put(name, unmodifiableList(more));
+        }
     }
 }
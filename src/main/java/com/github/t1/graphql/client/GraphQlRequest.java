@@ -0,0 +1,75 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import lombok.RequiredArgsConstructor;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The json body of a GraphQL request. It's written directly to the entity stream, i.e. it's never held as a string;
+ * only {@link #toString()}, e.g. for logging or error messages, renders it again.
+ */
+@RequiredArgsConstructor
+class GraphQlRequest {
+    private static final JsonGeneratorFactory GENERATORS = Json.createGeneratorFactory(null);
+
+    /** <code>null</code> for a persisted query that is sent only by its hash */
+    private final String query;
+    /** <code>null</code> if the arguments are not sent as variables */
+    private final MethodInfo variables;
+    private final JsonObject extensions;
+
+    void write(OutputStream output) {
+        write(GENERATORS.createGenerator(output));
+    }
+
+    @Override public String toString() {
+        StringWriter writer = new StringWriter();
+        write(GENERATORS.createGenerator(writer));
+        return writer.toString();
+    }
+
+    /**
+     * The query parameters for a GET request, not encoded, yet: the <code>query</code> and the <code>operationName</code> as they are,
+     * the <code>variables</code> and <code>extensions</code> as json.
+     */
+    Map<String, String> getParameters(String operationName) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (query != null)
+            parameters.put("query", query);
+        if (operationName != null)
+            parameters.put("operationName", operationName);
+        if (variables != null) {
+            StringWriter writer = new StringWriter();
+            JsonGenerator generator = GENERATORS.createGenerator(writer);
+            new VariablesWriter(variables, generator).write();
+            generator.flush();
+            parameters.put("variables", writer.toString());
+        }
+        if (extensions != null)
+            parameters.put("extensions", extensions.toString());
+        return parameters;
+    }
+
+    /** Don't close the generator, as that would close the underlying stream */
+    private void write(JsonGenerator generator) {
+        generator.writeStartObject();
+        if (query != null)
+            generator.write("query", query);
+        if (variables != null) {
+            generator.writeKey("variables");
+            new VariablesWriter(variables, generator).write();
+        }
+        if (extensions != null)
+            generator.write("extensions", extensions);
+        generator.writeEnd();
+        generator.flush();
+    }
+}
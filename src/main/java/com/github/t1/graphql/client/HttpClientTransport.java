@@ -0,0 +1,29 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+
+/**
+ * A {@link GraphQlTransport} based on the <code>java.net.http.HttpClient</code>, which multiplexes concurrent requests
+ * over a few HTTP/2 connections and sends async requests without blocking a thread.
+ * <p>
+ * This is the Java 8 version, which is not {@link #isAvailable() available}; the real implementation is in
+ * <code>META-INF/versions/11</code> of this multi-release jar.
+ */
+public class HttpClientTransport implements GraphQlTransport {
+    public static boolean isAvailable() { return false; }
+
+    public HttpClientTransport() {
+        throw unavailable();
+    }
+
+    @Override public GraphQlTransportResponse send(GraphQlTransportRequest request) {
+        throw unavailable();
+    }
+
+    private static GraphQlClientException unavailable() {
+        return new GraphQlClientException("the java.net.http transport requires Java 11 or later");
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.t1.graphql.client;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Emits the items of a list response as the subscriber requests them. The request is sent only on the first demand,
+ * and then the items are decoded from the response stream one by one, so only the requested items are in memory.
+ * The items are emitted on the thread that requests them, which blocks while the response is read.
+ * Every subscription sends its own request.
+ */
+@RequiredArgsConstructor
+class ItemsPublisher implements Publisher<Object> {
+    private final Supplier<ResponseReader.Items> call;
+
+    @Override public void subscribe(Subscriber<? super Object> subscriber) {
+        if (subscriber == null)
+            throw new NullPointerException("subscriber must not be null"); // rule 1.9
+        subscriber.onSubscribe(new ItemsSubscription(subscriber));
+    }
+
+    @RequiredArgsConstructor
+    private class ItemsSubscription implements Subscription {
+        private final Subscriber<? super Object> subscriber;
+        /** Only the thread that increases the demand from zero drains; that serializes all access to the items */
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled = false;
+        private volatile String invalidRequest = null;
+        private ResponseReader.Items items;
+        private boolean done = false;
+
+        @Override public void request(long n) {
+            if (n <= 0)
+                invalidRequest = "non-positive request " + n; // rule 3.9
+            if (add(n) == 0)
+                drain();
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+            if (add(1) == 0)
+                drain();
+        }
+
+        private long add(long n) {
+            return demand.getAndUpdate(current -> (current + n <= 0) ? Long.MAX_VALUE : current + n);
+        }
+
+        private void drain() {
+            for (long requested = demand.get(); requested > 0; requested = demand.addAndGet(-requested))
+                if (!done)
+                    emit(requested);
+        }
+
+        private void emit(long requested) {
+            try {
+                if (cancelled) {
+                    close();
+                } else if (invalidRequest != null) {
+                    close();
+                    subscriber.onError(new IllegalArgumentException(invalidRequest));
+                } else {
+                    if (items == null)
+                        items = call.get();
+                    for (long emitted = 0; emitted < requested && !cancelled && items.hasNext(); emitted++)
+                        subscriber.onNext(items.next());
+                    if (cancelled) {
+                        close();
+                    } else if (!items.hasNext()) {
+                        close();
+                        subscriber.onComplete();
+                    }
+                }
+            } catch (RuntimeException e) {
+                close();
+                subscriber.onError(e);
+            }
+        }
+
+        private void close() {
+            done = true;
+            if (items != null)
+                items.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+import lombok.RequiredArgsConstructor;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+/** The default {@link GraphQlTransport}, based on a JAX-RS {@link Client} */
+@RequiredArgsConstructor
+class JaxRsTransport implements GraphQlTransport {
+    private final Client client;
+    private final Map<URI, WebTarget> targets = new ConcurrentHashMap<>();
+
+    @Override public GraphQlTransportResponse send(GraphQlTransportRequest request) {
+        Invocation.Builder invocation = invocation(request);
+        Response response = (request.getBody() == null)
+            ? invocation.get()
+            : invocation.post(entity(request));
+        return new JaxRsResponse(response);
+    }
+
+    @Override public CompletionStage<GraphQlTransportResponse> sendAsync(GraphQlTransportRequest request) {
+        Invocation.Builder invocation = invocation(request);
+        CompletionStage<Response> response = (request.getBody() == null)
+            ? invocation.rx().get()
+            : invocation.rx().post(entity(request));
+        return response.thenApply(JaxRsResponse::new);
+    }
+
+    private Invocation.Builder invocation(GraphQlTransportRequest request) {
+        WebTarget target = targets.computeIfAbsent(request.getUri(), client::target);
+        for (Map.Entry<String, String> parameter : request.getQueryParameters().entrySet())
+            target = target.queryParam(parameter.getKey(), parameter.getValue());
+        Invocation.Builder invocation = target.request(APPLICATION_JSON_TYPE);
+        for (Map.Entry<String, List<Object>> header : request.getHeaders().entrySet())
+            for (Object value : header.getValue())
+                invocation.header(header.getKey(), value);
+        return invocation;
+    }
+
+    private static Entity<StreamingOutput> entity(GraphQlTransportRequest request) {
+        GraphQlTransportRequest.Body body = request.getBody();
+        return Entity.entity(body::writeTo, new Variant(APPLICATION_JSON_TYPE, (String) null, request.getContentEncoding()));
+    }
+
+    @RequiredArgsConstructor
+    private static class JaxRsResponse implements GraphQlTransportResponse {
+        private final Response response;
+
+        @Override public int getStatus() { return response.getStatus(); }
+
+        @Override public String getReasonPhrase() { return response.getStatusInfo().getReasonPhrase(); }
+
+        @Override public String getHeader(String name) { return response.getHeaderString(name); }
+
+        @Override public InputStream getBody() {
+            return response.hasEntity() ? response.readEntity(InputStream.class) : new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override public void close() { response.close(); }
+    }
+}
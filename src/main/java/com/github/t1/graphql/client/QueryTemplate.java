@@ -0,0 +1,105 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.FieldInfo;
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import com.github.t1.graphql.client.reflection.TypeInfo;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * The parts of a GraphQL document that depend only on the api method, not on the argument values,
+ * i.e. the operation, the field name, and the selection set. Build it once per method and reuse it.
+ * When the arguments are sent as variables, the document is completely static.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
+class QueryTemplate {
+    static QueryTemplate of(MethodInfo method, boolean variables) {
+        String selection = fields(method.getReturnType());
+        String tail = selection + " }";
+        if (method.getParameterCount() == 0)
+            return new QueryTemplate(operation(method) + " { " + method.getName() + tail, null, selection, null);
+        if (variables)
+            return new QueryTemplate(operation(method) + " " + method.getName() + variableDefinitions(method)
+                + " { " + method.getName() + variableReferences(method) + tail, null, selection, method.getName());
+        return new QueryTemplate(operation(method) + " { " + method.getName(), tail, selection, null);
+    }
+
+    private final String head;
+    /** <code>null</code> if the document doesn't contain any argument values */
+    private final String tail;
+    private final String selection;
+    /** <code>null</code> if the operation is anonymous */
+    @Getter private final String operationName;
+
+    @Getter(value = PRIVATE, lazy = true) private final String staticHash = sha256(head);
+
+    String build(MethodInfo method) {
+        if (tail == null)
+            return head;
+        return head + new RequestBuilder(method).build() + tail;
+    }
+
+    /** The aliased field with inlined arguments, e.g. <code>a0: hero(name: "x") {name}</code>, to be combined with other fields */
+    String field(MethodInfo method, String alias) {
+        return alias + ": " + method.getName() + new RequestBuilder(method).build() + selection;
+    }
+
+    /** The hex SHA-256 of the document, as used for persisted queries; computed only once, if the document is static */
+    String hash(String document) {
+        return (tail == null) ? getStaticHash() : sha256(document);
+    }
+
+    @SneakyThrows(NoSuchAlgorithmException.class)
+    private static String sha256(String document) {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(document.getBytes(UTF_8));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private static String operation(MethodInfo method) {
+        return method.isQuery() ? "query" : "mutation";
+    }
+
+    private static String variableDefinitions(MethodInfo method) {
+        return method.getParameters().stream()
+            .map(parameter -> "$" + parameter.getName() + ": " + parameter.getGraphQlInputTypeName())
+            .collect(joining(", ", "(", ")"));
+    }
+
+    private static String variableReferences(MethodInfo method) {
+        return method.getParameters().stream()
+            .map(parameter -> parameter.getName() + ": $" + parameter.getName())
+            .collect(joining(", ", "(", ")"));
+    }
+
+    private static String fields(TypeInfo type) {
+        while (type.isOptional())
+            type = type.getItemType();
+        if (type.isScalar()) {
+            return "";
+        } else if (type.isCollection() || type.isPublisher()) {
+            return fields(type.getItemType());
+        } else {
+            return type.fields()
+                .map(QueryTemplate::field)
+                .collect(joining(" ", " {", "}"));
+        }
+    }
+
+    private static String field(FieldInfo field) {
+        TypeInfo type = field.getType();
+        if (type.isScalar() || type.isCollection() && type.getItemType().isScalar()) {
+            return field.getName();
+        } else {
+            return field.getName() + fields(type);
+        }
+    }
+}
@@ -12,8 +12,8 @@ class RequestBuilder {
     private final MethodInfo method;
     private final StringBuilder request = new StringBuilder();
 
+    /** The argument list, e.g. <code>(who: "foo", count: 3)</code>, or an empty string, if there are no parameters */
     String build() {
-        request.append(method.getName());
         if (method.getParameterCount() > 0) {
             request.append("(");
             Repeated repeated = new Repeated(", ");
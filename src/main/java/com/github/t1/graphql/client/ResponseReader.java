@@ -0,0 +1,144 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.json.JsonParserReader;
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import lombok.RequiredArgsConstructor;
+
+import javax.json.Json;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonObjectBuilder;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static javax.json.stream.JsonParser.Event.VALUE_NULL;
+
+/**
+ * Reads a GraphQL response from a {@link JsonParser}. The <code>data</code> for the method
+ * is decoded directly into the return type, without building a tree of json values first.
+ */
+@RequiredArgsConstructor
+class ResponseReader {
+    private static final JsonBuilderFactory BUILDERS = Json.createBuilderFactory(null);
+
+    private final MethodInfo method;
+    private final GraphQlRequest request;
+    private final JsonParser parser;
+    private final JsonObjectBuilder otherData = BUILDERS.createObjectBuilder();
+    private boolean inData = false;
+
+    Object read() {
+        seekData();
+        Object value;
+        try {
+            value = JsonParserReader.readFrom(method, parser);
+        } catch (GraphQlClientException e) {
+            throw finishAfter(e);
+        }
+        finish();
+        return value;
+    }
+
+    /**
+     * The data could not be read, but there may be <code>errors</code> after it, e.g. for a <code>null</code> value.
+     * They explain the cause better, so they take precedence, and the decode failure is suppressed.
+     */
+    private RuntimeException finishAfter(GraphQlClientException failure) {
+        try {
+            finish();
+        } catch (GraphQlClientErrorsException errors) {
+            errors.addSuppressed(failure);
+            return errors;
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    /** The items of a list response; they are only decoded while iterating */
+    Items readItems() {
+        seekData();
+        return new Items(JsonParserReader.readItemsFrom(method, parser));
+    }
+
+    private void seekData() {
+        if (parser.next() != START_OBJECT)
+            throw new GraphQlClientException("expected a json object response but got " + parser.getValue() + ":\n  " + request);
+        if (!next())
+            throw new GraphQlClientException("no data for '" + method.getName() + "':\n  " + otherData.build());
+    }
+
+    /** Read the rest of the response, e.g. there may be <code>errors</code> after the <code>data</code> */
+    private void finish() {
+        while (next())
+            skip(parser.next());
+    }
+
+    /**
+     * Advance to the next data for the method.
+     *
+     * @return <code>true</code> if the next value is the data for the method, <code>false</code> at the end of the response
+     */
+    private boolean next() {
+        for (Event event = parser.next(); ; event = parser.next()) {
+            if (event == END_OBJECT) {
+                if (!inData)
+                    return false;
+                inData = false;
+                continue;
+            }
+            String key = parser.getString();
+            if (inData) {
+                if (key.equals(method.getName()))
+                    return true;
+                parser.next();
+                otherData.add(key, parser.getValue()); // only for the error message
+            } else {
+                Event valueEvent = parser.next();
+                if ("errors".equals(key) && valueEvent != VALUE_NULL)
+                    throw new GraphQlClientErrorsException(parser.getArray(), request);
+                else if ("data".equals(key) && valueEvent == START_OBJECT)
+                    inData = true;
+                else
+                    skip(valueEvent);
+            }
+        }
+    }
+
+    private void skip(Event event) {
+        if (event == START_OBJECT)
+            parser.skipObject();
+        else if (event == START_ARRAY)
+            parser.skipArray();
+    }
+
+    /** Not thread safe; closing closes the response stream */
+    @RequiredArgsConstructor
+    class Items implements Iterator<Object>, AutoCloseable {
+        private final Iterator<Object> items;
+        private boolean finished = false;
+
+        @Override public boolean hasNext() {
+            if (items.hasNext())
+                return true;
+            if (!finished) {
+                finished = true;
+                finish();
+            }
+            return false;
+        }
+
+        @Override public Object next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return items.next();
+        }
+
+        @Override public void close() { parser.close(); }
+    }
+}
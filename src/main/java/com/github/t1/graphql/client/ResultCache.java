@@ -0,0 +1,146 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.CacheStatistics;
+import com.github.t1.graphql.client.api.Cached;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The results of a {@link Cached} method, by request. It's size-bounded with LRU eviction.
+ * Results are loaded outside of the lock, so concurrent misses for the same key may load it twice;
+ * combine it with single-flight to prevent that.
+ * Expired results with an <code>ETag</code> or <code>Last-Modified</code> are kept, so they can be
+ * revalidated with a conditional request; see {@link Cached#revalidate()}.
+ */
+public class ResultCache implements CacheStatistics {
+    public static CacheStatistics statistics(Object api, String methodName) {
+        return GraphQlClientProxy.of(api).resultCache(methodName);
+    }
+
+    private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*(ms|s|m|h|d)");
+
+    static Duration parseDuration(String text) {
+        Matcher matcher = DURATION.matcher(text.trim());
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "ms":
+                    return Duration.ofMillis(amount);
+                case "s":
+                    return Duration.ofSeconds(amount);
+                case "m":
+                    return Duration.ofMinutes(amount);
+                case "h":
+                    return Duration.ofHours(amount);
+                default:
+                    return Duration.ofDays(amount);
+            }
+        }
+        try {
+            return Duration.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new GraphQlClientException("invalid duration '" + text + "'", e);
+        }
+    }
+
+    private final long ttlNanos;
+    private final boolean revalidate;
+    private final Map<Object, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    ResultCache(Cached cached) {
+        this.ttlNanos = parseDuration(cached.ttl()).toNanos();
+        this.revalidate = cached.revalidate();
+        int maxEntries = cached.maxEntries();
+        if (maxEntries <= 0)
+            throw new GraphQlClientException("invalid maxEntries " + maxEntries + "; must be positive");
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (size() <= maxEntries)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /** A result with the validators the service sent with it */
+    @Value
+    static class Validated {
+        Object value;
+        /** <code>null</code> if the service didn't send an <code>ETag</code> header */
+        String entityTag;
+        /** <code>null</code> if the service didn't send a <code>Last-Modified</code> header */
+        String lastModified;
+        /** The service responded with <code>304 Not Modified</code>, so the value is the one we already had */
+        boolean notModified;
+
+        boolean hasValidators() { return entityTag != null || lastModified != null; }
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final Validated validated;
+        private final long expiresAt;
+
+        boolean isExpired(long now) { return now - expiresAt >= 0; }
+    }
+
+    /**
+     * @param load gets the expired result to revalidate, or <code>null</code> if there is none,
+     *             and returns the new result or the revalidated one
+     */
+    Object get(Object key, Function<Validated, Validated> load) {
+        Entry entry = lookup(key);
+        if (entry != null && !entry.isExpired(System.nanoTime())) {
+            hits.increment();
+            return entry.validated.getValue();
+        }
+        Validated stale = (entry == null) ? null : entry.validated;
+        if (stale == null)
+            misses.increment();
+        Validated loaded = load.apply(stale);
+        if (stale != null)
+            (loaded.isNotModified() ? notModified : misses).increment();
+        put(key, loaded);
+        return loaded.getValue();
+    }
+
+    /** Expired entries are only returned if they can be revalidated */
+    private synchronized Entry lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.nanoTime()) && !(revalidate && entry.validated.hasValidators())) {
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(Object key, Validated validated) {
+        entries.put(key, new Entry(validated, System.nanoTime() + ttlNanos));
+    }
+
+    @Override public long getHits() { return hits.sum(); }
+
+    @Override public long getMisses() { return misses.sum(); }
+
+    @Override public long getEvictions() { return evictions.sum(); }
+
+    @Override public long getNotModified() { return notModified.sum(); }
+
+    @Override public synchronized int getSize() { return entries.size(); }
+}
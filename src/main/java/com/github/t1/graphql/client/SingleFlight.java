@@ -0,0 +1,33 @@
+package com.github.t1.graphql.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.github.t1.graphql.client.Futures.join;
+
+/**
+ * While a call with a key is in flight, other calls with the same key wait for its result
+ * instead of sending the same request again. The result is not cached after the call has completed.
+ */
+class SingleFlight {
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    Object call(Object key, Supplier<Object> call) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> pending = inFlight.putIfAbsent(key, result);
+        if (pending != null)
+            return join(pending);
+        try {
+            Object value = call.get();
+            result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, result);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.t1.graphql.client;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Buffers a request body only while it's shorter than the threshold, so we know if it has to be compressed,
+ * but a long body is never held in memory completely: it's written again, streaming through the compressor.
+ */
+class ThresholdBuffer extends ByteArrayOutputStream {
+    private static final RuntimeException REACHED = new RuntimeException("threshold reached", null, false, false) {};
+
+    private final int threshold;
+
+    ThresholdBuffer(int threshold) {
+        super(Math.min(threshold, 8192));
+        this.threshold = threshold;
+    }
+
+    /** @return <code>true</code> if the request is shorter than the threshold, i.e. it's completely buffered */
+    boolean fill(GraphQlRequest request) {
+        try {
+            request.write(this);
+            return true;
+        } catch (RuntimeException e) {
+            if (!isReached(e))
+                throw e;
+            return false;
+        }
+    }
+
+    /** A json generator may wrap it */
+    private static boolean isReached(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause())
+            if (cause == REACHED)
+                return true;
+        return false;
+    }
+
+    @Override public synchronized void write(int b) {
+        check(1);
+        super.write(b);
+    }
+
+    @Override public synchronized void write(byte[] bytes, int offset, int length) {
+        check(length);
+        super.write(bytes, offset, length);
+    }
+
+    private void check(int length) {
+        if (count + length >= threshold)
+            throw REACHED;
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import com.github.t1.graphql.client.reflection.ParameterInfo;
+import com.github.t1.graphql.client.reflection.TypeInfo;
+import lombok.RequiredArgsConstructor;
+
+import javax.json.stream.JsonGenerator;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+
+/**
+ * Writes the <code>variables</code> for the argument values, the counterpart of the variable definitions in the {@link QueryTemplate}.
+ * The values go directly to the generator, so even big input lists are never held as a json tree or string.
+ */
+@RequiredArgsConstructor
+class VariablesWriter {
+    private final MethodInfo method;
+    private final JsonGenerator generator;
+
+    /** The variables object, i.e. without a key */
+    void write() {
+        generator.writeStartObject();
+        for (ParameterInfo parameter : method.getParameters()) {
+            generator.writeKey(parameter.getName());
+            writeValue(parameter.getType(), parameter.getValue());
+        }
+        generator.writeEnd();
+    }
+
+    private void writeValue(TypeInfo type, Object value) {
+        if (value == null)
+            generator.writeNull();
+        else if (value instanceof Boolean)
+            generator.write((Boolean) value);
+        else if (value instanceof Number)
+            writeNumberValue((Number) value);
+        else if (value instanceof Enum)
+            generator.write(((Enum<?>) value).name());
+        else if (type.isScalar())
+            generator.write(value.toString());
+        else if (type.isCollection())
+            writeArrayValue(type.getItemType(), value);
+        else
+            writeObjectValue(type, value);
+    }
+
+    private void writeNumberValue(Number value) {
+        if (value instanceof BigDecimal)
+            generator.write((BigDecimal) value);
+        else if (value instanceof BigInteger)
+            generator.write((BigInteger) value);
+        else if (value instanceof Long)
+            generator.write(value.longValue());
+        else if (value instanceof Float || value instanceof Double)
+            generator.write(value.doubleValue());
+        else
+            generator.write(value.intValue());
+    }
+
+    private void writeArrayValue(TypeInfo itemType, Object values) {
+        generator.writeStartArray();
+        if (values instanceof Collection)
+            ((Collection<?>) values).forEach(value -> writeValue(itemType, value));
+        else
+            for (int i = 0; i < Array.getLength(values); i++)
+                writeValue(itemType, Array.get(values, i));
+        generator.writeEnd();
+    }
+
+    private void writeObjectValue(TypeInfo type, Object value) {
+        generator.writeStartObject();
+        type.fields().forEach(field -> {
+            generator.writeKey(field.getName());
+            writeValue(field.getType(), field.get(value));
+        });
+        generator.writeEnd();
+    }
+}
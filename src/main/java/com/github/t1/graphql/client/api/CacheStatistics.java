@@ -0,0 +1,21 @@
+package com.github.t1.graphql.client.api;
+
+import com.github.t1.graphql.client.ResultCache;
+
+/** The counters of the result cache of a {@link Cached} method */
+public interface CacheStatistics {
+    /** @param methodName the name of the java method, not the GraphQL query name */
+    static CacheStatistics of(Object api, String methodName) { return ResultCache.statistics(api, methodName); }
+
+    long getHits();
+
+    long getMisses();
+
+    /** Results removed because the cache was full or because they expired */
+    long getEvictions();
+
+    /** Expired results that the service confirmed with a <code>304 Not Modified</code> */
+    long getNotModified();
+
+    int getSize();
+}
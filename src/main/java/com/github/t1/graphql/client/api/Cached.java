@@ -0,0 +1,36 @@
+package com.github.t1.graphql.client.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Cache the results of a query method by the argument values, so repeated calls within the {@link #ttl()}
+ * don't need a round trip. The values of headers with a supplier are part of the key,
+ * so callers with, e.g., different credentials don't get each other's results. All callers get the <em>same</em> result instance, so they must not modify it.
+ * Only allowed on blocking queries; mutations are never cached. Cached queries are not batched.
+ *
+ * @see CacheStatistics
+ */
+@Documented
+@Retention(RUNTIME) @Target(METHOD)
+public @interface Cached {
+    /**
+     * How long a result is valid, e.g. <code>500ms</code>, <code>30s</code>, <code>5m</code>, <code>1h</code>, <code>1d</code>,
+     * or an ISO-8601 duration like <code>PT30S</code>
+     */
+    String ttl() default "60s";
+
+    /** When the cache is full, the least recently used result is evicted; must be positive */
+    int maxEntries() default 1000;
+
+    /**
+     * Keep expired results with an <code>ETag</code> or <code>Last-Modified</code> response header,
+     * and send the next request with <code>If-None-Match</code> or <code>If-Modified-Since</code>.
+     * If the service responds with <code>304 Not Modified</code>, the result is reused without reading it again.
+     */
+    boolean revalidate() default true;
+}
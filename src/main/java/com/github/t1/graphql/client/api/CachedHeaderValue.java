@@ -0,0 +1,85 @@
+package com.github.t1.graphql.client.api;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/** @see GraphQlClientHeader#cached(Duration, Executor, Clock) */
+@Slf4j
+class CachedHeaderValue implements Supplier<Object> {
+    /** Not the common pool, as the suppliers often block, e.g. while calling a token service */
+    static final Executor REFRESHER = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "graphql-header-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Supplier<Object> supplier;
+    private final long ttlMillis;
+    private final long refreshMillis;
+    private final Executor refresher;
+    private final Clock clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    /** <code>null</code> until the first load */
+    private volatile Loaded loaded = null;
+
+    private static class Loaded {
+        private final Object value;
+        private final long millis;
+
+        private Loaded(Object value, long millis) {
+            this.value = value;
+            this.millis = millis;
+        }
+    }
+
+    CachedHeaderValue(Supplier<Object> supplier, Duration ttl, Executor refresher, Clock clock) {
+        this.supplier = supplier;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshMillis = ttlMillis / 4 * 3;
+        this.refresher = refresher;
+        this.clock = clock;
+    }
+
+    @Override public Object get() {
+        Loaded current = loaded;
+        long age = (current == null) ? 0 : clock.millis() - current.millis;
+        if (current == null || age >= ttlMillis)
+            return load(current);
+        if (age >= refreshMillis && refreshing.compareAndSet(false, true))
+            refreshAsync();
+        return current.value;
+    }
+
+    /** Only one thread loads; the others wait for it */
+    private synchronized Object load(Loaded expired) {
+        if (loaded != expired) // loaded or refreshed by another thread in the meantime
+            return loaded.value;
+        loaded = new Loaded(supplier.get(), clock.millis());
+        return loaded.value;
+    }
+
+    private void refreshAsync() {
+        try {
+            refresher.execute(this::refresh);
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("failed to schedule the refresh of a header value; keep the current value until it expires", e);
+        }
+    }
+
+    private void refresh() {
+        try {
+            loaded = new Loaded(supplier.get(), clock.millis());
+        } catch (RuntimeException e) {
+            log.warn("failed to refresh header value; keep the current value until it expires", e);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+}
@@ -13,4 +13,46 @@ public @interface GraphQlClientApi {
     String endpoint() default "";
 
     String configKey() default "";
+
+    /**
+     * Send the arguments as GraphQL <code>variables</code> instead of inlining them into the query,
+     * so the document is the same for all calls of a method and can be cached on both sides.
+     */
+    boolean variables() default false;
+
+    /**
+     * Use the <a href="https://www.apollographql.com/docs/apollo-server/performance/apq/">Automatic Persisted Queries</a>
+     * protocol: first send only the SHA-256 hash of the query, and send the full query only if the service doesn't know it yet.
+     * Best combined with {@link #variables()}, so the document and its hash don't change with every argument value.
+     */
+    boolean persistedQueries() default false;
+
+    /**
+     * While a query with the same document and argument values is already in flight, wait for its result
+     * instead of sending the same request again. All these callers get the <em>same</em> result instance,
+     * so they must not modify it. Mutations, async, and Publisher methods are never de-duplicated.
+     */
+    boolean singleFlight() default false;
+
+    /**
+     * Merge up to this many queries that different threads call at about the same time
+     * into one request, with an alias for each call. <code>0</code> or <code>1</code> disables batching.
+     * Only blocking queries are batched; their arguments are always inlined.
+     */
+    int batchSize() default 0;
+
+    /** How long the first call of a batch waits for other calls to join, if the {@link #batchSize()} isn't reached before */
+    long batchWindowMillis() default 2;
+
+    /**
+     * Send queries as GET requests with <code>query</code>, <code>operationName</code>, <code>variables</code>,
+     * and <code>extensions</code> url parameters, so HTTP caches can cache them. Mutations are always POSTed.
+     *
+     * @see HttpGet
+     * @see #maxGetUrlLength()
+     */
+    boolean httpGet() default false;
+
+    /** If the url of a GET request would be longer than this, POST the request instead */
+    int maxGetUrlLength() default 2048;
 }
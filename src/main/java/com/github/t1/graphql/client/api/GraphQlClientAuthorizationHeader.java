@@ -13,6 +13,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * Depending on the constructor used, a different config key prefix is used,
  * with <code>username</code> and <code>password</code> appended.
  * See the constructors for details.
+ * The config is read and encoded for every request; use {@link #cached(java.time.Duration)} to reuse the value.
  */
 public class GraphQlClientAuthorizationHeader extends GraphQlClientHeader {
     /**
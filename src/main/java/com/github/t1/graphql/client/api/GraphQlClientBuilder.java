@@ -1,10 +1,13 @@
 package com.github.t1.graphql.client.api;
 
 import com.github.t1.graphql.client.GraphQlClientBuilderImpl;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
 
 import javax.ws.rs.client.Client;
 import java.net.URI;
+import java.util.concurrent.Executor;
 
+/** A builder is not thread-safe, but the apis it builds are */
 public interface GraphQlClientBuilder {
 
     static GraphQlClientBuilder newBuilder() { return new GraphQlClientBuilderImpl(); }
@@ -13,18 +16,67 @@ public interface GraphQlClientBuilder {
     GraphQlClientBuilder configKey(String configKey);
 
 
+    /** Use this JAX-RS client for the default transport */
     GraphQlClientBuilder client(Client client);
 
+    /** Use this instead of the default JAX-RS transport; the {@link #client(Client)} is ignored then */
+    GraphQlClientBuilder transport(GraphQlTransport transport);
+
 
     default GraphQlClientBuilder endpoint(String endpoint) { return endpoint(URI.create(endpoint)); }
 
     GraphQlClientBuilder endpoint(URI endpoint);
 
 
+    /**
+     * Decode the responses of async calls with this executor, not with the completion thread of the transport.
+     * Defaults to the common {@link java.util.concurrent.ForkJoinPool}.
+     */
+    GraphQlClientBuilder executor(Executor executor);
+
+
+    /** @see GraphQlClientApi#variables() */
+    GraphQlClientBuilder variables(boolean variables);
+
+    /** @see GraphQlClientApi#persistedQueries() */
+    GraphQlClientBuilder persistedQueries(boolean persistedQueries);
+
+    /** @see GraphQlClientApi#singleFlight() */
+    GraphQlClientBuilder singleFlight(boolean singleFlight);
+
+    /** @see GraphQlClientApi#batchSize() */
+    GraphQlClientBuilder batchSize(int batchSize);
+
+    /** @see GraphQlClientApi#batchWindowMillis() */
+    GraphQlClientBuilder batchWindowMillis(long batchWindowMillis);
+
+    /** @see GraphQlClientApi#httpGet() */
+    GraphQlClientBuilder httpGet(boolean httpGet);
+
+    /** @see GraphQlClientApi#maxGetUrlLength() */
+    GraphQlClientBuilder maxGetUrlLength(int maxGetUrlLength);
+
+    /**
+     * Accept gzip or deflate compressed responses. Defaults to the MP Config <code>{configKey}/mp-graphql/gzip</code>,
+     * or <code>true</code>.
+     */
+    GraphQlClientBuilder gzip(boolean gzip);
+
+    /**
+     * Compress POSTed requests with gzip, if their body is at least this many bytes long; negative disables it.
+     * Defaults to the MP Config <code>{configKey}/mp-graphql/gzip-request-threshold</code>, or <code>-1</code>.
+     */
+    GraphQlClientBuilder gzipRequestThreshold(int gzipRequestThreshold);
+
+
     default GraphQlClientBuilder header(String name, Object value) { return header(new GraphQlClientHeader(name, value)); }
 
     GraphQlClientBuilder header(GraphQlClientHeader header);
 
 
+    /**
+     * Build a thread-safe proxy for this api, with a snapshot of the configuration:
+     * changing this builder later doesn't change the proxies built before.
+     */
     <T> T build(Class<T> apiClass);
 }
@@ -1,20 +1,30 @@
 package com.github.t1.graphql.client.api;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 public class GraphQlClientHeader {
     private final String name;
     private final Supplier<Object> supplier;
+    /** The value never changes, so it can be computed once */
+    private final boolean constant;
 
     @SuppressWarnings("unused") GraphQlClientHeader() { this(null, null); }
 
-    public GraphQlClientHeader(String name, Object value) { this(name, () -> value); }
+    public GraphQlClientHeader(String name, Object value) {
+        this.name = name;
+        this.supplier = () -> value;
+        this.constant = true;
+    }
 
     public GraphQlClientHeader(String name, Supplier<Object> supplier) {
         this.name = name;
         this.supplier = supplier;
+        this.constant = false;
     }
 
     public String getName() { return this.name; }
@@ -24,5 +34,23 @@ public class GraphQlClientHeader {
         return supplier.get();
     }
 
+    public boolean isConstant() { return constant; }
+
     public Map.Entry<String, Object> toEntry() { return new SimpleEntry<>(getName(), getValue()); }
+
+    /**
+     * A header with the same name that reuses the value for the <code>ttl</code>.
+     * When three quarters of the ttl have passed, the next request triggers a refresh in the background,
+     * so requests only wait for the value when it's loaded for the first time or it has expired.
+     * Useful for, e.g., bearer tokens that are expensive to get.
+     */
+    public GraphQlClientHeader cached(Duration ttl) { return cached(ttl, CachedHeaderValue.REFRESHER); }
+
+    /** Like {@link #cached(Duration)}, but refresh the value on that executor */
+    public GraphQlClientHeader cached(Duration ttl, Executor refresher) { return cached(ttl, refresher, Clock.systemUTC()); }
+
+    /** Like {@link #cached(Duration, Executor)}, but take the time from that clock, e.g. in tests */
+    public GraphQlClientHeader cached(Duration ttl, Executor refresher, Clock clock) {
+        return new GraphQlClientHeader(name, new CachedHeaderValue(supplier, ttl, refresher, clock));
+    }
 }
@@ -0,0 +1,18 @@
+package com.github.t1.graphql.client.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Send this query as a GET request, or not, overriding the {@link GraphQlClientApi#httpGet()} of the api.
+ * Ignored for mutations, which are always POSTed.
+ */
+@Documented
+@Retention(RUNTIME) @Target(METHOD)
+public @interface HttpGet {
+    boolean value() default true;
+}
@@ -4,17 +4,71 @@ import com.github.t1.graphql.client.api.GraphQlClientBuilder;
 import com.github.t1.graphql.client.api.GraphQlClientHeader;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.NormalScope;
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.inject.spi.CDI;
+import javax.inject.Scope;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The scope is <code>@Dependent</code>, so there is no CDI client proxy in between,
+ * unless the api interface is annotated with a scope, e.g. <code>@ApplicationScoped</code>.
+ * The GraphQL client proxies are thread-safe, so all <code>@Dependent</code> injection points share one proxy per api;
+ * with any other scope, the context of that scope decides which injection points share a proxy.
+ * <p>
+ * The header beans may be CDI client proxies, e.g. of a <code>@RequestScoped</code> bean,
+ * so their values are taken for every request, even if they were created as constant headers.
+ */
 @Slf4j
 public class GraphQlClientBean<T> extends AbstractBean<T> {
-    public GraphQlClientBean(Class<T> apiClass) { super(apiClass); }
+    private final Supplier<List<GraphQlClientHeader>> headers;
+    private final Class<? extends Annotation> scope;
+    /** Only used for the <code>@Dependent</code> scope; <code>null</code> until the first injection */
+    private volatile T proxy = null;
+
+    public GraphQlClientBean(Class<T> apiClass) { this(apiClass, GraphQlClientBean::lookupHeaders); }
+
+    /** @param headers the header beans; only called when a proxy is built */
+    public GraphQlClientBean(Class<T> apiClass, Supplier<List<GraphQlClientHeader>> headers) {
+        super(apiClass);
+        this.headers = headers;
+        this.scope = Stream.of(type.getAnnotations())
+            .map(Annotation::annotationType)
+            .filter(annotation -> annotation.isAnnotationPresent(NormalScope.class) || annotation.isAnnotationPresent(Scope.class))
+            .findFirst()
+            .orElseGet(super::getScope);
+    }
+
+    static List<GraphQlClientHeader> lookupHeaders() {
+        return CDI.current().select(GraphQlClientHeader.class).stream().collect(toList());
+    }
+
+    @Override public Class<? extends Annotation> getScope() { return scope; }
 
     @Override public T create(CreationalContext<T> creationalContext) {
+        if (scope != Dependent.class)
+            return build();
+        T proxy = this.proxy;
+        if (proxy == null) {
+            synchronized (this) {
+                proxy = this.proxy;
+                if (proxy == null)
+                    this.proxy = proxy = build();
+            }
+        }
+        return proxy;
+    }
+
+    private T build() {
         log.debug("create GraphQL Client proxy: {}", type);
         GraphQlClientBuilder builder = GraphQlClientBuilder.newBuilder();
-        CDI.current().select(GraphQlClientHeader.class).stream().forEach(builder::header);
+        headers.get().forEach(header -> builder.header(new GraphQlClientHeader(header.getName(), header::getValue)));
         return builder.build(type);
     }
 }
@@ -1,6 +1,7 @@
 package com.github.t1.graphql.client.cdi;
 
 import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.enterprise.event.Observes;
@@ -14,6 +15,8 @@ import java.util.List;
 @Slf4j
 public class GraphQlClientExtension implements Extension {
     private final List<Class<?>> apis = new ArrayList<>();
+    /** The header beans are looked up only once for all apis; <code>null</code> until the first proxy is built */
+    private List<GraphQlClientHeader> headers = null;
 
     public void registerGraphQlClientApis(@Observes @WithAnnotations(GraphQlClientApi.class) ProcessAnnotatedType<?> type) {
         Class<?> javaClass = type.getAnnotatedType().getJavaClass();
@@ -28,7 +31,13 @@ public class GraphQlClientExtension implements Extension {
 
     public void createProxies(@Observes AfterBeanDiscovery afterBeanDiscovery) {
         for (Class<?> api : apis) {
-            afterBeanDiscovery.addBean(new GraphQlClientBean<>(api));
+            afterBeanDiscovery.addBean(new GraphQlClientBean<>(api, this::headers));
         }
     }
+
+    private synchronized List<GraphQlClientHeader> headers() {
+        if (headers == null)
+            headers = GraphQlClientBean.lookupHeaders();
+        return headers;
+    }
 }
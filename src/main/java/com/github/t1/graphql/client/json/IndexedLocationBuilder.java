@@ -1,20 +1,11 @@
 package com.github.t1.graphql.client.json;
 
-import com.github.t1.graphql.client.reflection.TypeInfo;
-
-import java.util.concurrent.atomic.AtomicInteger;
-
+/** Not thread safe: it's used only while reading one array */
 class IndexedLocationBuilder {
-    private final TypeInfo itemType;
-    private final String baseDescription;
-    private final AtomicInteger index = new AtomicInteger();
+    private final Location location;
+    private int index = 0;
 
-    IndexedLocationBuilder(Location location) {
-        this.itemType = location.getType().getItemType();
-        this.baseDescription = location.getDescription();
-    }
+    IndexedLocationBuilder(Location location) { this.location = location; }
 
-    Location nextLocation() {
-        return new Location(itemType, baseDescription + "[" + index.getAndIncrement() + "]");
-    }
+    Location nextLocation() { return location.item(index++); }
 }
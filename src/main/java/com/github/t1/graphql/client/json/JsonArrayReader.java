@@ -19,7 +19,6 @@ import static java.util.stream.Collectors.toSet;
 
 class JsonArrayReader extends Reader<JsonArray> {
 
-    @Getter(lazy = true) private final Class<?> collectionType = type.getRawType();
     @Getter(lazy = true) private final TypeInfo itemType = type.getItemType();
 
     JsonArrayReader(TypeInfo type, Location location, JsonArray value) { super(type, location, value); }
@@ -38,15 +37,18 @@ class JsonArrayReader extends Reader<JsonArray> {
         return readJson(itemLocation, itemType, itemValue);
     }
 
-    private Collector<Object, ?, ?> collector() {
-        if (getCollectionType().isArray()) {
+    private Collector<Object, ?, ?> collector() { return collector(type); }
+
+    static Collector<Object, ?, ?> collector(TypeInfo type) {
+        Class<?> collectionType = type.getRawType();
+        if (collectionType.isArray()) {
             @SuppressWarnings("unchecked")
-            Class<Object> rawItemType = (Class<Object>) getItemType().getRawType();
+            Class<Object> rawItemType = (Class<Object>) type.getItemType().getRawType();
             return toArray(rawItemType);
         }
-        if (Set.class.isAssignableFrom(getCollectionType()))
+        if (Set.class.isAssignableFrom(collectionType))
             return toSet();
-        assert List.class.isAssignableFrom(getCollectionType());
+        assert List.class.isAssignableFrom(collectionType);
         return toList();
     }
 }
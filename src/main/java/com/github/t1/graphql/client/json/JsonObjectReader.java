@@ -15,7 +15,7 @@ class JsonObjectReader extends Reader<JsonObject> {
 
     @Override Object read() {
         check(location, value, !type.isCollection() && !type.isScalar());
-        Object instance = newInstance();
+        Object instance = newInstance(type, location);
         type.fields().forEach(field -> {
             Object fieldValue = buildValue(location, value, field);
             field.set(instance, fieldValue);
@@ -23,7 +23,7 @@ class JsonObjectReader extends Reader<JsonObject> {
         return instance;
     }
 
-    private Object newInstance() {
+    static Object newInstance(TypeInfo type, Location location) {
         try {
             return type.newInstance();
         } catch (Exception e) {
@@ -32,7 +32,7 @@ class JsonObjectReader extends Reader<JsonObject> {
     }
 
     private Object buildValue(Location location, JsonObject value, FieldInfo field) {
-        Location fieldLocation = new Location(field.getType(), location.getDescription() + "." + field.getName());
+        Location fieldLocation = location.field(field);
         JsonValue jsonFieldValue = value.get(field.getName());
         if (jsonFieldValue == null) {
             if (field.isNonNull())
@@ -0,0 +1,171 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.reflection.FieldInfo;
+import com.github.t1.graphql.client.reflection.MethodInfo;
+import com.github.t1.graphql.client.reflection.TypeInfo;
+import lombok.RequiredArgsConstructor;
+
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Collector;
+
+import static com.github.t1.graphql.client.json.JsonObjectReader.newInstance;
+import static java.util.Collections.emptyIterator;
+import static com.github.t1.graphql.client.json.JsonReader.readJson;
+import static javax.json.stream.JsonParser.Event.END_ARRAY;
+import static javax.json.stream.JsonParser.Event.END_OBJECT;
+import static javax.json.stream.JsonParser.Event.KEY_NAME;
+import static javax.json.stream.JsonParser.Event.START_ARRAY;
+import static javax.json.stream.JsonParser.Event.START_OBJECT;
+import static javax.json.stream.JsonParser.Event.VALUE_NULL;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Reads directly from the events of a {@link JsonParser}, so a big response doesn't have to be
+ * materialized as a tree of {@link JsonValue}s before it's mapped to the return type.
+ * Scalars are read by the same readers as the values of a tree, so the rules are the same.
+ * If a value can't be read, the rest of it is skipped before the exception is thrown,
+ * so the caller can continue reading the response, e.g. the <code>errors</code> that come later.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
+public class JsonParserReader {
+    /** Read the next value from the parser */
+    public static Object readFrom(MethodInfo method, JsonParser parser) {
+        TypeInfo type = method.getReturnType();
+        return new JsonParserReader(parser).read(new Location(type, method.toString()), type, parser.next());
+    }
+
+    /** Read the items of the next array from the parser, only as they are iterated; <code>null</code> is an empty array */
+    public static Iterator<Object> readItemsFrom(MethodInfo method, JsonParser parser) {
+        TypeInfo type = method.getReturnType();
+        Location location = new Location(type, method.toString());
+        JsonParserReader reader = new JsonParserReader(parser);
+        Event event = parser.next();
+        if (event == VALUE_NULL && !type.isNonNull())
+            return emptyIterator();
+        if (event != START_ARRAY)
+            throw new GraphQlClientValueException(location, parser.getValue());
+        return reader.new ItemIterator(location, type.getItemType());
+    }
+
+    private final JsonParser parser;
+
+    private Object read(Location location, TypeInfo type, Event event) {
+        if (type.isOptional())
+            return Optional.ofNullable(read(location, type.getItemType(), event));
+        switch (event) {
+            case START_ARRAY:
+                return readArray(location, type);
+            case START_OBJECT:
+                return readObject(location, type);
+            default:
+                return readJson(location, type, parser.getValue());
+        }
+    }
+
+    private Object readArray(Location location, TypeInfo type) {
+        if (!type.isCollection())
+            throw new GraphQlClientValueException(location, parser.getArray());
+        return readItems(location, type.getItemType(), JsonArrayReader.collector(type));
+    }
+
+    private <A, R> R readItems(Location location, TypeInfo itemType, Collector<Object, A, R> collector) {
+        A items = collector.supplier().get();
+        try {
+            for (ItemIterator iterator = new ItemIterator(location, itemType); iterator.hasNext(); )
+                collector.accumulator().accept(items, iterator.next());
+        } catch (GraphQlClientException e) {
+            skipRest();
+            throw e;
+        }
+        return collector.finisher().apply(items);
+    }
+
+    /** Reads the items of an array, after the {@link Event#START_ARRAY START_ARRAY} event */
+    private class ItemIterator implements Iterator<Object> {
+        private final TypeInfo itemType;
+        private final IndexedLocationBuilder locationBuilder;
+        /** The first event of the next item, or <code>null</code>, if it's not read, yet */
+        private Event next;
+
+        private ItemIterator(Location location, TypeInfo itemType) {
+            this.itemType = itemType;
+            this.locationBuilder = new IndexedLocationBuilder(location);
+        }
+
+        @Override public boolean hasNext() {
+            if (next == null)
+                next = parser.next();
+            return next != END_ARRAY;
+        }
+
+        @Override public Object next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Event event = next;
+            next = null;
+            Location itemLocation = locationBuilder.nextLocation();
+            if (event == VALUE_NULL && itemType.isNonNull())
+                throw new GraphQlClientException("invalid null " + itemLocation);
+            return read(itemLocation, itemType, event);
+        }
+    }
+
+    private Object readObject(Location location, TypeInfo type) {
+        if (type.isCollection() || type.isScalar())
+            throw new GraphQlClientValueException(location, parser.getObject());
+        Object instance;
+        boolean[] found = new boolean[type.fieldCount()];
+        try {
+            instance = newInstance(type, location);
+            for (Event event = parser.next(); event != END_OBJECT; event = parser.next()) {
+                assert event == KEY_NAME;
+                FieldInfo field = type.field(parser.getString());
+                Event valueEvent = parser.next();
+                if (field == null) {
+                    skip(valueEvent);
+                } else {
+                    found[field.getIndex()] = true;
+                    field.set(instance, read(location.field(field), field.getType(), valueEvent));
+                }
+            }
+        } catch (GraphQlClientException e) {
+            skipRest();
+            throw e;
+        }
+        type.fields()
+            .filter(field -> !found[field.getIndex()])
+            .forEach(field -> {
+                if (field.isNonNull())
+                    throw new GraphQlClientException("missing " + location.field(field));
+                field.set(instance, null);
+            });
+        return instance;
+    }
+
+    /**
+     * Skip to the end of the array or object that we are in, i.e. the values before have been completely read.
+     * We can't use {@link JsonParser#skipArray()}, as some implementations only skip when the current event is the start.
+     */
+    private void skipRest() {
+        for (int depth = 1; depth > 0; ) {
+            Event event = parser.next();
+            if (event == START_ARRAY || event == START_OBJECT)
+                depth++;
+            else if (event == END_ARRAY || event == END_OBJECT)
+                depth--;
+        }
+    }
+
+    private void skip(Event event) {
+        if (event == START_OBJECT)
+            parser.skipObject();
+        else if (event == START_ARRAY)
+            parser.skipArray();
+    }
+}
@@ -1,13 +1,47 @@
 package com.github.t1.graphql.client.json;
 
+import com.github.t1.graphql.client.reflection.FieldInfo;
 import com.github.t1.graphql.client.reflection.TypeInfo;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor @Getter
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Where a value is in the response, e.g. <code>...#items[1234].name</code>.
+ * It's only a chain of pointers to the parent location; the description string
+ * is only built when it's needed, i.e. for an error message.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
 class Location {
-    private final TypeInfo type;
-    private final String description;
+    Location(TypeInfo type, String description) { this(type, null, description, -1); }
+
+    @Getter private final TypeInfo type;
+    private final Location parent;
+    /** The description of a root location, or the name of a field; <code>null</code> for an item of an array */
+    private final String name;
+    private final int index;
+
+    Location field(FieldInfo field) { return new Location(field.getType(), this, field.getName(), -1); }
+
+    Location item(int index) { return new Location(type.getItemType(), this, null, index); }
+
+    String getDescription() {
+        StringBuilder out = new StringBuilder();
+        appendTo(out);
+        return out.toString();
+    }
+
+    private void appendTo(StringBuilder out) {
+        if (parent != null)
+            parent.appendTo(out);
+        if (name == null)
+            out.append('[').append(index).append(']');
+        else if (parent == null)
+            out.append(name);
+        else
+            out.append('.').append(name);
+    }
 
-    @Override public String toString() { return type.getTypeName() + " value for " + description; }
+    @Override public String toString() { return type.getTypeName() + " value for " + getDescription(); }
 }
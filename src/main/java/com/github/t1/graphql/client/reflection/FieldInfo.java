@@ -1,26 +1,35 @@
 package com.github.t1.graphql.client.reflection;
 
 import com.github.t1.graphql.client.api.GraphQlClientException;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.microprofile.graphql.Name;
 import org.eclipse.microprofile.graphql.NonNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 
+import static java.lang.invoke.MethodType.methodType;
 import static lombok.AccessLevel.PACKAGE;
+import static lombok.AccessLevel.PRIVATE;
 
 @RequiredArgsConstructor(access = PACKAGE)
 public class FieldInfo {
     private final TypeInfo container;
     private final Field field;
+    /** The position in the {@link TypeInfo#fields()} of the container */
+    @Getter private final int index;
 
-    @Override public String toString() { return "field '" + field.getName() + "' in " + container; }
+    @Getter(lazy = true) private final TypeInfo type = new TypeInfo(container, field.getGenericType());
+    @Getter(lazy = true) private final String name = computeName();
+    @Getter(value = PRIVATE, lazy = true) private final MethodHandle getter = computeGetter();
+    @Getter(value = PRIVATE, lazy = true) private final MethodHandle setter = computeSetter();
+    @Getter(lazy = true) private final boolean nonNull = field.isAnnotationPresent(NonNull.class) || getType().isPrimitive();
 
-    public TypeInfo getType() {
-        return new TypeInfo(container, field.getGenericType());
-    }
+    @Override public String toString() { return "field '" + field.getName() + "' in " + container; }
 
-    public String getName() {
+    private String computeName() {
         if (field.isAnnotationPresent(Name.class))
             return field.getAnnotation(Name.class).value();
         return field.getName();
@@ -28,25 +37,52 @@ public class FieldInfo {
 
     public Object get(Object instance) {
         try {
-            field.setAccessible(true);
-            return field.get(instance);
-        } catch (ReflectiveOperationException e) {
-            // this code is unreachable: setAccessible also allows to change `final` fields
+            return (Object) getGetter().invokeExact(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new GraphQlClientException("can't get field " + this, e);
         }
     }
 
     public void set(Object instance, Object value) {
         try {
-            field.setAccessible(true);
-            field.set(instance, value);
-        } catch (ReflectiveOperationException e) {
-            // this code is unreachable: setAccessible also allows to change `final` fields
+            getSetter().invokeExact(instance, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new GraphQlClientException("can't set field " + this + " to " + value, e);
         }
     }
 
-    public boolean isNonNull() {
-        return field.isAnnotationPresent(NonNull.class) || getType().isPrimitive();
+    /*
+     * The access checks are done only once, when the method handles are created,
+     * not for every access, as with `Field#get` and `Field#set`.
+     * The handles are typed generically, so we can use `invokeExact`.
+     */
+
+    private MethodHandle computeGetter() {
+        try {
+            return MethodHandles.lookup().unreflectGetter(accessibleField())
+                .asType(methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            // this code is unreachable: setAccessible also allows to read private fields
+            throw new GraphQlClientException("can't get field " + this, e);
+        }
+    }
+
+    private MethodHandle computeSetter() {
+        try {
+            return MethodHandles.lookup().unreflectSetter(accessibleField())
+                .asType(methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            // this code is unreachable: setAccessible also allows to change `final` fields
+            throw new GraphQlClientException("can't set field " + this, e);
+        }
+    }
+
+    private Field accessibleField() {
+        field.setAccessible(true);
+        return field;
     }
 }
@@ -1,6 +1,7 @@
 package com.github.t1.graphql.client.reflection;
 
 import com.github.t1.graphql.client.CollectionUtils;
+import com.github.t1.graphql.client.api.GraphQlClientException;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.microprofile.graphql.Mutation;
 import org.eclipse.microprofile.graphql.Query;
@@ -10,71 +11,128 @@ import java.lang.reflect.AnnotatedParameterizedType;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static lombok.AccessLevel.PRIVATE;
 
 @RequiredArgsConstructor(access = PRIVATE)
 public class MethodInfo {
     public static MethodInfo of(Method method, Object... args) {
-        return new MethodInfo(new TypeInfo(null, method.getDeclaringClass()), method, args);
+        return new MethodInfo(Signature.of(method), args);
     }
 
-    private final TypeInfo type;
-    private final Method method;
+    private final Signature signature;
     private final Object[] parameterValues;
 
-    @Override public String toString() { return type + "#" + method.getName(); }
+    @Override public String toString() { return signature.description; }
 
-    public boolean isQuery() {
-        return !ifAnnotated(Mutation.class).isPresent();
-    }
-
-    public String getName() {
-        return queryName()
-            .orElseGet(() -> mutationName()
-                .orElseGet(method::getName));
-    }
+    /** Identifies the method independent of the argument values, e.g. to cache what only depends on the method */
+    public Object getKey() { return signature.method; }
 
-    private Optional<String> queryName() {
-        return ifAnnotated(Query.class)
-            .map(Query::value)
-            .filter(CollectionUtils::nonEmpty);
-    }
+    public boolean isQuery() { return signature.query; }
 
-    private Optional<String> mutationName() {
-        return ifAnnotated(Mutation.class)
-            .map(Mutation::value)
-            .filter(CollectionUtils::nonEmpty);
-    }
+    /** The method returns a {@link CompletionStage} or {@link CompletableFuture} of the {@link #getReturnType() return type} */
+    public boolean isAsync() { return signature.async; }
 
-    private <T extends Annotation> Optional<T> ifAnnotated(Class<T> type) {
-        return Optional.ofNullable(method.getAnnotation(type));
-    }
+    public String getName() { return signature.name; }
 
-    public int getParameterCount() { return method.getParameterCount(); }
+    public <T extends Annotation> Optional<T> getAnnotation(Class<T> type) { return signature.ifAnnotated(type); }
 
-    public TypeInfo getReturnType() { return new TypeInfo(type, method.getGenericReturnType(), returnTypeAnnotations()); }
+    public int getParameterCount() { return signature.parameters.length; }
 
-    private AnnotatedType[] returnTypeAnnotations() {
-        if (method.getAnnotatedReturnType() instanceof AnnotatedParameterizedType)
-            return ((AnnotatedParameterizedType) method.getAnnotatedReturnType()).getAnnotatedActualTypeArguments();
-        else
-            return new AnnotatedType[0];
-    }
+    /** The type of the data, i.e. not wrapped in a {@link CompletionStage} for {@link #isAsync() async} methods */
+    public TypeInfo getReturnType() { return signature.returnType; }
 
     public List<ParameterInfo> getParameters() {
-        Parameter[] parameters = method.getParameters();
+        Parameter[] parameters = signature.parameters;
         assert parameters.length == parameterValues.length;
-        List<ParameterInfo> list = new ArrayList<>();
+        List<ParameterInfo> list = new ArrayList<>(parameters.length);
         for (int i = 0; i < parameters.length; i++) {
             list.add(new ParameterInfo(this,
                 parameters[i],
-                new TypeInfo(null, method.getGenericParameterTypes()[i]),
+                signature.parameterTypes[i],
                 parameterValues[i]));
         }
         return list;
     }
+
+    /**
+     * Everything about a method that doesn't depend on the argument values.
+     * It's computed only once per method and shared between all threads, so it must never change.
+     */
+    private static class Signature {
+        private static final ClassValue<Map<Method, Signature>> CACHE = new ClassValue<Map<Method, Signature>>() {
+            @Override protected Map<Method, Signature> computeValue(Class<?> type) { return new ConcurrentHashMap<>(); }
+        };
+
+        static Signature of(Method method) {
+            return CACHE.get(method.getDeclaringClass()).computeIfAbsent(method, Signature::new);
+        }
+
+        private final Method method;
+        private final String description;
+        private final boolean query;
+        private final String name;
+        private final boolean async;
+        private final TypeInfo returnType;
+        private final Parameter[] parameters;
+        private final TypeInfo[] parameterTypes;
+
+        private Signature(Method method) {
+            this.method = method;
+            TypeInfo type = new TypeInfo(null, method.getDeclaringClass());
+            this.description = type + "#" + method.getName();
+            this.query = !ifAnnotated(Mutation.class).isPresent();
+            this.name = queryName()
+                .orElseGet(() -> mutationName()
+                    .orElseGet(method::getName));
+            this.async = CompletionStage.class.equals(method.getReturnType())
+                || CompletableFuture.class.equals(method.getReturnType());
+            this.returnType = async ? asyncReturnType(type) : new TypeInfo(type, method.getGenericReturnType(), annotatedArgs(method.getAnnotatedReturnType()));
+            this.parameters = method.getParameters();
+            Type[] genericParameterTypes = method.getGenericParameterTypes();
+            this.parameterTypes = new TypeInfo[parameters.length];
+            for (int i = 0; i < parameters.length; i++)
+                parameterTypes[i] = new TypeInfo(null, genericParameterTypes[i], annotatedArgs(parameters[i].getAnnotatedType()));
+        }
+
+        private TypeInfo asyncReturnType(TypeInfo type) {
+            if (!(method.getGenericReturnType() instanceof ParameterizedType))
+                throw new GraphQlClientException("the async return type of " + description + " needs a type argument");
+            Type itemType = ((ParameterizedType) method.getGenericReturnType()).getActualTypeArguments()[0];
+            AnnotatedType annotatedItemType = ((AnnotatedParameterizedType) method.getAnnotatedReturnType()).getAnnotatedActualTypeArguments()[0];
+            return new TypeInfo(type, itemType, annotatedArgs(annotatedItemType));
+        }
+
+        private Optional<String> queryName() {
+            return ifAnnotated(Query.class)
+                .map(Query::value)
+                .filter(CollectionUtils::nonEmpty);
+        }
+
+        private Optional<String> mutationName() {
+            return ifAnnotated(Mutation.class)
+                .map(Mutation::value)
+                .filter(CollectionUtils::nonEmpty);
+        }
+
+        private <T extends Annotation> Optional<T> ifAnnotated(Class<T> type) {
+            return Optional.ofNullable(method.getAnnotation(type));
+        }
+
+        private static AnnotatedType[] annotatedArgs(AnnotatedType annotatedType) {
+            if (annotatedType instanceof AnnotatedParameterizedType)
+                return ((AnnotatedParameterizedType) annotatedType).getAnnotatedActualTypeArguments();
+            else
+                return new AnnotatedType[0];
+        }
+    }
 }
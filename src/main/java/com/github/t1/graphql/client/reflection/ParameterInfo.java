@@ -4,6 +4,7 @@ import com.github.t1.graphql.client.api.GraphQlClientException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.microprofile.graphql.Name;
+import org.eclipse.microprofile.graphql.NonNull;
 
 import java.lang.reflect.Parameter;
 
@@ -23,4 +24,13 @@ public class ParameterInfo {
             throw new GraphQlClientException("compile with -parameters to add the parameter names to the class file");
         return parameter.getName();
     }
+
+    /** The GraphQL type to declare for this parameter when it's sent as a variable, e.g. <code>Int!</code> */
+    public String getGraphQlInputTypeName() {
+        return type.getGraphQlInputTypeName() + (isNonNull() ? "!" : "");
+    }
+
+    private boolean isNonNull() {
+        return parameter.isAnnotationPresent(NonNull.class) || type.isPrimitive();
+    }
 }
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.eclipse.microprofile.graphql.Name;
 
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Constructor;
@@ -15,15 +16,25 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static java.lang.reflect.Modifier.isStatic;
 import static java.lang.reflect.Modifier.isTransient;
+import static java.util.Collections.unmodifiableList;
 import static lombok.AccessLevel.PACKAGE;
+import static lombok.AccessLevel.PRIVATE;
 
+/**
+ * Instances are cached and shared between threads, e.g. the return type of a {@link MethodInfo},
+ * so everything is final or lazily computed in a thread-safe way.
+ */
 @RequiredArgsConstructor(access = PACKAGE)
 public class TypeInfo {
     private final TypeInfo container;
@@ -33,11 +44,15 @@ public class TypeInfo {
     @Getter(lazy = true) private final TypeInfo itemType
         = new TypeInfo(this, computeItemType());
     @Getter(lazy = true) private final Class<?> rawType = raw(type);
+    @Getter(lazy = true) private final boolean scalar = computeScalar();
+    @Getter(value = PRIVATE, lazy = true) private final List<FieldInfo> fieldInfos = computeFields();
+    @Getter(value = PRIVATE, lazy = true) private final Map<String, FieldInfo> fieldsByName = computeFieldsByName();
+    @Getter(value = PRIVATE, lazy = true) private final Constructor<?> noArgsConstructor = computeNoArgsConstructor();
 
     public TypeInfo(TypeInfo containerType, Type itemType) { this(containerType, itemType, new AnnotatedType[0]); }
 
     private Type computeItemType() {
-        assert isCollection() || isOptional();
+        assert isCollection() || isOptional() || isPublisher();
         if (type instanceof ParameterizedType)
             return ((ParameterizedType) type).getActualTypeArguments()[0];
         assert type != null;
@@ -74,6 +89,50 @@ public class TypeInfo {
         return type.getTypeName();
     }
 
+    /** The name of the GraphQL type to use when this type is used as an input, e.g. in a variable definition */
+    public String getGraphQlInputTypeName() {
+        if (isCollection()) {
+            TypeInfo item = getItemType();
+            return "[" + item.getGraphQlInputTypeName() + ((item.isNonNull() || item.isPrimitive()) ? "!" : "") + "]";
+        }
+        if (ifClass(c -> c.isAnnotationPresent(Name.class)))
+            return getRawType().getAnnotation(Name.class).value();
+        switch (getRawType().getName()) {
+            case "int":
+            case "java.lang.Integer":
+            case "short":
+            case "java.lang.Short":
+            case "byte":
+            case "java.lang.Byte":
+                return "Int";
+            case "long":
+            case "java.lang.Long":
+            case "java.math.BigInteger":
+                return "BigInteger";
+            case "float":
+            case "java.lang.Float":
+            case "double":
+            case "java.lang.Double":
+                return "Float";
+            case "java.math.BigDecimal":
+                return "BigDecimal";
+            case "boolean":
+            case "java.lang.Boolean":
+                return "Boolean";
+            case "char":
+            case "java.lang.Character":
+            case "java.lang.String":
+                return "String";
+            case "java.time.LocalDate":
+                return "Date";
+            case "java.time.LocalTime":
+                return "Time";
+            case "java.time.LocalDateTime":
+                return "DateTime";
+        }
+        return getRawType().getSimpleName() + ((isScalar()) ? "" : "Input");
+    }
+
     public boolean isCollection() {
         return ifClass(Class::isArray)
             || Collection.class.isAssignableFrom(getRawType());
@@ -83,27 +142,40 @@ public class TypeInfo {
         return (type instanceof Class) && predicate.test((Class<?>) type);
     }
 
-    public Stream<FieldInfo> fields() { return fields(getRawType()); }
+    public Stream<FieldInfo> fields() { return getFieldInfos().stream(); }
+
+    public int fieldCount() { return getFieldInfos().size(); }
+
+    /** The field with that GraphQL name, or <code>null</code> */
+    public FieldInfo field(String name) { return getFieldsByName().get(name); }
 
-    private Stream<FieldInfo> fields(Class<?> rawType) {
-        return (rawType == null) ? Stream.of() :
-            Stream.concat(
-                fields(rawType.getSuperclass()),
-                Stream.of(rawType.getDeclaredFields())
-                    .filter(this::isGraphQlField)
-                    .map(field -> new FieldInfo(this, field))
-            );
+    private List<FieldInfo> computeFields() {
+        List<Field> fields = GRAPHQL_FIELDS.get(getRawType());
+        List<FieldInfo> list = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++)
+            list.add(new FieldInfo(this, fields.get(i), i));
+        return unmodifiableList(list);
     }
 
-    private boolean isGraphQlField(Field field) {
-        return !isStatic(field.getModifiers()) && !isTransient(field.getModifiers());
+    private Map<String, FieldInfo> computeFieldsByName() {
+        Map<String, FieldInfo> map = new HashMap<>();
+        fields().forEach(field -> map.put(field.getName(), field));
+        return map;
     }
 
     public boolean isOptional() {
         return Optional.class.equals(getRawType());
     }
 
-    public boolean isScalar() {
+    /**
+     * A reactive streams <code>Publisher</code> of the items of a list; only supported as the return type of api methods.
+     * Compared by name, as the reactive streams api is optional at runtime.
+     */
+    public boolean isPublisher() {
+        return "org.reactivestreams.Publisher".equals(getRawType().getName());
+    }
+
+    private boolean computeScalar() {
         return isPrimitive()
             || Character.class.equals(getRawType()) // has a valueOf(char), not valueOf(String)
             || CharSequence.class.isAssignableFrom(getRawType())
@@ -120,45 +192,77 @@ public class TypeInfo {
     }
 
     public Optional<ConstructingInfo> scalarConstructor() {
+        return SCALAR_CONSTRUCTORS.get(getRawType());
+    }
+
+    private static Optional<ConstructingInfo> computeScalarConstructor(Class<?> rawType) {
         return Stream.concat(
-            Stream.of(getRawType().getMethods()).filter(this::isStaticStringConstructor),
-            Stream.of(getRawType().getConstructors()).filter(this::hasOneStringParameter)
+            Stream.of(rawType.getMethods()).filter(method -> isStaticStringConstructor(rawType, method)),
+            Stream.of(rawType.getConstructors()).filter(TypeInfo::hasOneStringParameter)
         )
             .findFirst()
             .map(ConstructingInfo::new);
     }
 
-    private boolean hasOneStringParameter(Executable executable) {
+    private static boolean hasOneStringParameter(Executable executable) {
         return executable.getParameterCount() == 1 && CharSequence.class.isAssignableFrom(executable.getParameterTypes()[0]);
     }
 
-    private boolean isStaticStringConstructor(Method method) {
-        return isStaticConstructorMethodNamed(method, "of")
-            || isStaticConstructorMethodNamed(method, "valueOf")
-            || isStaticConstructorMethodNamed(method, "parse");
+    private static boolean isStaticStringConstructor(Class<?> rawType, Method method) {
+        return isStaticConstructorMethodNamed(rawType, method, "of")
+            || isStaticConstructorMethodNamed(rawType, method, "valueOf")
+            || isStaticConstructorMethodNamed(rawType, method, "parse");
     }
 
-    private boolean isStaticConstructorMethodNamed(Method method, String name) {
+    private static boolean isStaticConstructorMethodNamed(Class<?> rawType, Method method, String name) {
         return method.getName().equals(name)
             && Modifier.isStatic(method.getModifiers())
-            && method.getReturnType().equals(type)
+            && method.getReturnType().equals(rawType)
             && hasOneStringParameter(method);
     }
 
     @SneakyThrows(ReflectiveOperationException.class)
     public Object newInstance() {
+        return getNoArgsConstructor().newInstance();
+    }
+
+    @SneakyThrows(NoSuchMethodException.class)
+    private Constructor<?> computeNoArgsConstructor() {
         Constructor<?> noArgsConstructor = getRawType().getDeclaredConstructor();
         noArgsConstructor.setAccessible(true);
-        return noArgsConstructor.newInstance();
+        return noArgsConstructor;
     }
 
     public boolean isNonNull() {
         if (ifClass(c -> c.isAnnotationPresent(org.eclipse.microprofile.graphql.NonNull.class)))
             return true;
-        if (!container.isCollection())
+        if (!(container.isCollection() || container.isPublisher()) || container.annotatedArgs.length == 0)
             return false;
         // TODO this is not generally correct
         AnnotatedType annotatedArg = container.annotatedArgs[0];
         return annotatedArg.isAnnotationPresent(org.eclipse.microprofile.graphql.NonNull.class);
     }
+
+
+    /*
+     * What only depends on the raw class is computed once per class and shared by all TypeInfos and threads.
+     */
+
+    private static final ClassValue<List<Field>> GRAPHQL_FIELDS = new ClassValue<List<Field>>() {
+        @Override protected List<Field> computeValue(Class<?> rawType) {
+            List<Field> fields = new ArrayList<>();
+            if (rawType.getSuperclass() != null)
+                fields.addAll(get(rawType.getSuperclass()));
+            Stream.of(rawType.getDeclaredFields())
+                .filter(field -> !isStatic(field.getModifiers()) && !isTransient(field.getModifiers()))
+                .forEach(fields::add);
+            return unmodifiableList(fields);
+        }
+    };
+
+    private static final ClassValue<Optional<ConstructingInfo>> SCALAR_CONSTRUCTORS = new ClassValue<Optional<ConstructingInfo>>() {
+        @Override protected Optional<ConstructingInfo> computeValue(Class<?> rawType) {
+            return computeScalarConstructor(rawType);
+        }
+    };
 }
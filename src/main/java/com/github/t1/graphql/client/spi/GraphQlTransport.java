@@ -0,0 +1,21 @@
+package com.github.t1.graphql.client.spi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sends the requests of a GraphQL client api over HTTP. The client builds the complete request,
+ * i.e. the transport only has to send it and return the response.
+ * Transports are shared by all threads calling the api, so they must be thread-safe.
+ *
+ * @see com.github.t1.graphql.client.api.GraphQlClientBuilder#transport(GraphQlTransport)
+ */
+public interface GraphQlTransport {
+    /** Send the request and return the response, whatever status it has */
+    GraphQlTransportResponse send(GraphQlTransportRequest request);
+
+    /** Send the request without blocking. The default sends it from the common fork-join pool. */
+    default CompletionStage<GraphQlTransportResponse> sendAsync(GraphQlTransportRequest request) {
+        return CompletableFuture.supplyAsync(() -> send(request));
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.t1.graphql.client.spi;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request to send to the GraphQL endpoint. Both the request and the response are always
+ * <code>application/json</code>, so the transport has to send the <code>Accept</code> and
+ * <code>Content-Type</code> headers itself.
+ */
+@Value
+public class GraphQlTransportRequest {
+    /** <code>GET</code> or <code>POST</code> */
+    String method;
+    URI uri;
+    /** Already url-encoded; to be appended to the {@link #uri}. Empty for <code>POST</code> requests. */
+    Map<String, String> queryParameters;
+    /** The values are typically strings; other values are converted by the transport, e.g. with <code>toString()</code> */
+    Map<String, List<Object>> headers;
+    /** <code>null</code> if the body is not compressed */
+    String contentEncoding;
+    /** <code>null</code> for <code>GET</code> requests */
+    Body body;
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
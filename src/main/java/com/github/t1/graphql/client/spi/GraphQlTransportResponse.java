@@ -0,0 +1,19 @@
+package com.github.t1.graphql.client.spi;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/** The response from the GraphQL endpoint. Closing it, or the body stream, releases the connection. */
+public interface GraphQlTransportResponse extends Closeable {
+    int getStatus();
+
+    String getReasonPhrase();
+
+    /** The first value of the header; <code>null</code> if there is no such header */
+    String getHeader(String name);
+
+    /** The body as it was sent, i.e. maybe still compressed; empty if there is no body */
+    InputStream getBody();
+
+    @Override void close();
+}
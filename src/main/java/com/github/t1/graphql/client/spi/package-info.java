@@ -0,0 +1,4 @@
+/**
+ * The service provider interface to plug in other HTTP stacks than JAX-RS
+ */
+package com.github.t1.graphql.client.spi;
@@ -0,0 +1,131 @@
+package com.github.t1.graphql.client;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import static java.net.http.HttpClient.Version.HTTP_2;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A {@link GraphQlTransport} based on the <code>java.net.http.HttpClient</code>, which multiplexes concurrent requests
+ * over a few HTTP/2 connections and sends async requests without blocking a thread.
+ * <p>
+ * This is the Java 11 version of this class in the multi-release jar.
+ */
+public class HttpClientTransport implements GraphQlTransport {
+    public static boolean isAvailable() { return true; }
+
+    private final HttpClient client;
+
+    public HttpClientTransport() {
+        this.client = HttpClient.newBuilder().version(HTTP_2).build();
+    }
+
+    @Override public GraphQlTransportResponse send(GraphQlTransportRequest request) {
+        try {
+            return new HttpClientResponse(client.send(httpRequest(request), BodyHandlers.ofInputStream()));
+        } catch (IOException e) {
+            throw new GraphQlClientException("can't send request to " + request.getUri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GraphQlClientException("interrupted while sending request to " + request.getUri(), e);
+        }
+    }
+
+    @Override public CompletionStage<GraphQlTransportResponse> sendAsync(GraphQlTransportRequest request) {
+        return client.sendAsync(httpRequest(request), BodyHandlers.ofInputStream())
+            .handle((response, throwable) -> {
+                if (throwable != null)
+                    throw new GraphQlClientException("can't send request to " + request.getUri(), unwrap(throwable));
+                return new HttpClientResponse(response);
+            });
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return (throwable instanceof CompletionException && throwable.getCause() != null) ? throwable.getCause() : throwable;
+    }
+
+    private static HttpRequest httpRequest(GraphQlTransportRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(request))
+            .header("Accept", "application/json")
+            .method(request.getMethod(), body(request));
+        for (Map.Entry<String, List<Object>> header : request.getHeaders().entrySet())
+            for (Object value : header.getValue())
+                builder.header(header.getKey(), String.valueOf(value));
+        if (request.getBody() != null)
+            builder.header("Content-Type", "application/json");
+        if (request.getContentEncoding() != null)
+            builder.header("Content-Encoding", request.getContentEncoding());
+        return builder.build();
+    }
+
+    private static URI uri(GraphQlTransportRequest request) {
+        if (request.getQueryParameters().isEmpty())
+            return request.getUri();
+        return URI.create(request.getUri() + "?" + request.getQueryParameters().entrySet().stream()
+            .map(parameter -> parameter.getKey() + "=" + parameter.getValue())
+            .collect(joining("&")));
+    }
+
+    /**
+     * The request bodies are small and already built, so they are written to a buffer and published from there,
+     * without a thread that blocks while the client sends them.
+     */
+    private static BodyPublisher body(GraphQlTransportRequest request) {
+        if (request.getBody() == null)
+            return BodyPublishers.noBody();
+        BodyBuffer buffer = new BodyBuffer();
+        try {
+            request.getBody().writeTo(buffer);
+        } catch (IOException e) {
+            throw new GraphQlClientException("can't write request body for " + request.getUri(), e);
+        }
+        return buffer.publisher();
+    }
+
+    /** Publishes the bytes without copying them again */
+    private static class BodyBuffer extends ByteArrayOutputStream {
+        private BodyPublisher publisher() { return BodyPublishers.ofByteArray(buf, 0, count); }
+    }
+
+    private static class HttpClientResponse implements GraphQlTransportResponse {
+        private final HttpResponse<InputStream> response;
+
+        private HttpClientResponse(HttpResponse<InputStream> response) { this.response = response; }
+
+        @Override public int getStatus() { return response.statusCode(); }
+
+        /** HTTP/2 has no reason phrases */
+        @Override public String getReasonPhrase() { return ""; }
+
+        @Override public String getHeader(String name) { return response.headers().firstValue(name).orElse(null); }
+
+        @Override public InputStream getBody() { return response.body(); }
+
+        @Override public void close() {
+            try {
+                response.body().close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.t1.graphql.client.json;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * Guards the bytes a warmed-up call allocates in the calling thread against a budget,
+ * so allocation improvements don't silently regress. The budgets are about 1.5 times the measured values,
+ * to leave room for differences between JVMs; lower them when you make the client allocate less.
+ * The requests are sent to an in-memory transport, so only the client itself is measured.
+ */
+class AllocationBehavior {
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int MEASURED_CALLS = 200;
+    /** Every call reads 1000 heroes, so much fewer calls warm up the code per item just as well */
+    private static final int LIST_WARMUP_CALLS = 50;
+    private static final int LIST_MEASURED_CALLS = 20;
+
+    // measured on Java 8 with the glassfish json implementation: 28 KB, 30 KB, and 1.7 MB
+    private static final long SCALAR_BUDGET = 45_000;
+    private static final long NESTED_BUDGET = 48_000;
+    private static final long LIST_BUDGET = 2_600_000;
+
+    private final Logger clientLogger = (Logger) LoggerFactory.getLogger("com.github.t1.graphql.client");
+    private Level previousLevel;
+
+    /** Debug logging buffers and logs every request and response */
+    @BeforeEach void quiet() {
+        previousLevel = clientLogger.getLevel();
+        clientLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach void restore() { clientLogger.setLevel(previousLevel); }
+
+    interface HeroesApi {
+        String greeting(String who);
+
+        Hero hero(String name);
+
+        List<Hero> heroes(int count);
+    }
+
+    @SuppressWarnings("unused")
+    static class Hero {
+        String name;
+        List<String> abilities;
+        Team team;
+    }
+
+    @SuppressWarnings("unused")
+    static class Team {
+        String name;
+        int size;
+    }
+
+    private static final String HERO = "{\"name\":\"Spider-Man\",\"abilities\":[\"wall-crawling\",\"spider-sense\"]," +
+        "\"team\":{\"name\":\"Avengers\",\"size\":7}}";
+
+    private static HeroesApi api(String data) {
+        return GraphQlClientBuilder.newBuilder()
+            .endpoint("urn:in-memory")
+            .transport(new InMemoryTransport(("{\"data\":{" + data + "}}").getBytes(UTF_8)))
+            .build(HeroesApi.class);
+    }
+
+    private static String heroes(int count) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < count; i++)
+            out.append((i == 0) ? "" : ",").append(HERO);
+        return out.append("]").toString();
+    }
+
+    /** The average bytes allocated by the current thread for one call, after warming it up */
+    private static long bytesPerCall(Supplier<?> call) { return bytesPerCall(WARMUP_CALLS, MEASURED_CALLS, call); }
+
+    private static long bytesPerCall(int warmupCalls, int measuredCalls, Supplier<?> call) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeThat(bean).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < warmupCalls; i++)
+            then(call.get()).isNotNull();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < measuredCalls; i++)
+            call.get();
+        return (threads.getThreadAllocatedBytes(thread) - before) / measuredCalls;
+    }
+
+    @Test void shouldStayWithinBudgetForScalar() {
+        HeroesApi api = api("\"greeting\":\"hi, foo\"");
+
+        long bytes = bytesPerCall(() -> api.greeting("foo"));
+
+        then(bytes).describedAs("bytes per call").isLessThanOrEqualTo(SCALAR_BUDGET);
+    }
+
+    @Test void shouldStayWithinBudgetForNestedObject() {
+        HeroesApi api = api("\"hero\":" + HERO);
+
+        long bytes = bytesPerCall(() -> api.hero("Spider-Man"));
+
+        then(bytes).describedAs("bytes per call").isLessThanOrEqualTo(NESTED_BUDGET);
+    }
+
+    @Test void shouldStayWithinBudgetForLargeList() {
+        HeroesApi api = api("\"heroes\":" + heroes(1000));
+
+        long bytes = bytesPerCall(LIST_WARMUP_CALLS, LIST_MEASURED_CALLS, () -> api.heroes(1000));
+
+        then(bytes).describedAs("bytes per call").isLessThanOrEqualTo(LIST_BUDGET);
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN_TYPE;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class AsyncBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    interface StringApi {
+        CompletionStage<String> greeting();
+    }
+
+    @Test void shouldCallAsyncStringQuery() {
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder().build(StringApi.class);
+
+        String greeting = api.greeting().toCompletableFuture().join();
+
+        then(fixture.query()).isEqualTo("greeting");
+        then(greeting).isEqualTo("dummy-greeting");
+    }
+
+    @Test void shouldDecodeWithConfiguredExecutor() {
+        AtomicInteger executed = new AtomicInteger();
+        Executor executor = command -> {
+            executed.incrementAndGet();
+            command.run();
+        };
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder().executor(executor).build(StringApi.class);
+
+        String greeting = api.greeting().toCompletableFuture().join();
+
+        then(greeting).isEqualTo("dummy-greeting");
+        then(executed).hasValue(1);
+    }
+
+    @Test void shouldFailAsyncStringQueryWithErrors() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        StringApi api = fixture.builder().build(StringApi.class);
+
+        CompletableFuture<String> future = api.greeting().toCompletableFuture();
+
+        CompletionException thrown = catchThrowableOfType(future::join, CompletionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessage("errors from service: [{\"message\":\"failed\"}]:\n  {\"query\":\"query { greeting }\"}");
+    }
+
+    @Test void shouldFailAsyncStringQueryWithStatus() {
+        fixture.returns(Response.serverError().type(TEXT_PLAIN_TYPE).entity("failed").build());
+        StringApi api = fixture.builder().build(StringApi.class);
+
+        CompletableFuture<String> future = api.greeting().toCompletableFuture();
+
+        CompletionException thrown = catchThrowableOfType(future::join, CompletionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessage("expected successful status code but got 500 Internal Server Error:\nfailed");
+    }
+
+
+    interface ParamApi {
+        CompletableFuture<String> greeting(String who);
+    }
+
+    @Test void shouldCallAsyncParamQuery() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().build(ParamApi.class);
+
+        String greeting = api.greeting("foo").join();
+
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldCallAsyncParamQueryWithVariables() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().variables(true).build(ParamApi.class);
+
+        String greeting = api.greeting("foo").join();
+
+        then(fixture.document()).isEqualTo("query greeting($who: String) { greeting(who: $who) }");
+        then(fixture.variables()).isEqualTo("{'who':'foo'}");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+
+    interface ObjectListApi {
+        CompletionStage<List<@NonNull Greeting>> greetings();
+    }
+
+    @AllArgsConstructor @NoArgsConstructor(force = true)
+    @Data static class Greeting {
+        String text;
+        int code;
+    }
+
+    @Test void shouldCallAsyncObjectListQuery() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},{'text':'b','code':2}]");
+        ObjectListApi api = fixture.builder().build(ObjectListApi.class);
+
+        List<Greeting> greetings = api.greetings().toCompletableFuture().join();
+
+        then(fixture.query()).isEqualTo("greetings {text code}");
+        then(greetings).containsExactly(
+            new Greeting("a", 1),
+            new Greeting("b", 2));
+    }
+
+    @Test void shouldFailAsyncNonNullObjectListQuery() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},null]");
+        ObjectListApi api = fixture.builder().build(ObjectListApi.class);
+
+        CompletableFuture<List<Greeting>> future = api.greetings().toCompletableFuture();
+
+        CompletionException thrown = catchThrowableOfType(future::join, CompletionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessage("invalid null " + Greeting.class.getName() + " value for " + ObjectListApi.class.getName() + "#greetings[1]");
+    }
+
+
+    @Test void shouldCallAsyncPersistedQueryNotFound() {
+        fixture.returns(
+            Response.ok("{\"errors\":[{\"message\":\"PersistedQueryNotFound\"}]}").build(),
+            Response.ok("{\"data\":{\"greeting\":\"hi\"}}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        String greeting = api.greeting().toCompletableFuture().join();
+
+        then(fixture.requests()).hasSize(2);
+        then(fixture.requests().get(1)).startsWith("{'query':'query { greeting }',");
+        then(greeting).isEqualTo("hi");
+    }
+
+    @Test void shouldFailAsyncPersistedQueryWithOtherErrors() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        CompletableFuture<String> future = api.greeting().toCompletableFuture();
+
+        CompletionException thrown = catchThrowableOfType(future::join, CompletionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class);
+        then(fixture.requests()).hasSize(1);
+    }
+
+
+    @SuppressWarnings("rawtypes")
+    interface RawApi {
+        CompletionStage greeting();
+    }
+
+    @Test void shouldFailToCallRawAsyncApi() {
+        RawApi api = fixture.builder().build(RawApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greeting, GraphQlClientException.class);
+
+        then(thrown).hasMessage("the async return type of " + RawApi.class.getName() + "#greeting needs a type argument");
+    }
+}
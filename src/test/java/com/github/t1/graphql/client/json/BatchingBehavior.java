@@ -0,0 +1,217 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class BatchingBehavior {
+    private static final Pattern ALIASED_GREETING = Pattern.compile("(a\\d): greeting\\(who: '(\\w+)'\\)");
+
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach void shutdown() { executor.shutdownNow(); }
+
+    interface GreetingApi {
+        String greeting(String who);
+    }
+
+    private List<Future<String>> callConcurrently(Callable<String> call, int count) {
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            futures.add(executor.submit(call));
+        return futures;
+    }
+
+    private static void awaitDone(Future<?>... futures) throws InterruptedException {
+        for (Future<?> future : futures)
+            while (!future.isDone())
+                Thread.sleep(1);
+    }
+
+    /** Which alias was used for which argument */
+    private Map<String, String> aliases() {
+        Matcher matcher = ALIASED_GREETING.matcher(fixture.document());
+        Map<String, String> aliases = new HashMap<>();
+        while (matcher.find())
+            aliases.put(matcher.group(2), matcher.group(1));
+        return aliases;
+    }
+
+    @Test void shouldSendSingleCallUnbatched() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        GreetingApi api = fixture.builder().batchSize(10).build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldBatchConcurrentCallsWhenFull() throws Exception {
+        fixture.returnsData("'a0':'hi, a0','a1':'hi, a1','a2':'hi, a2'");
+        GreetingApi api = fixture.builder().batchSize(3).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        Future<String> foo = executor.submit(() -> api.greeting("foo"));
+        Future<String> bar = executor.submit(() -> api.greeting("bar"));
+        Future<String> baz = executor.submit(() -> api.greeting("baz"));
+
+        then(foo.get()).isEqualTo("hi, " + aliases().get("foo"));
+        then(bar.get()).isEqualTo("hi, " + aliases().get("bar"));
+        then(baz.get()).isEqualTo("hi, " + aliases().get("baz"));
+        then(fixture.requestCount()).isEqualTo(1);
+        then(fixture.document()).matches("query \\{ a\\d: greeting\\(who: '\\w+'\\) a\\d: greeting\\(who: '\\w+'\\) a\\d: greeting\\(who: '\\w+'\\) }");
+        then(aliases().values()).containsExactlyInAnyOrder("a0", "a1", "a2");
+    }
+
+    @Test void shouldBatchConcurrentCallsAfterWindow() throws Exception {
+        fixture.returnsData("'a0':'hi, a0','a1':'hi, a1'");
+        GreetingApi api = fixture.builder().batchSize(100).batchWindowMillis(500).build(GreetingApi.class);
+
+        List<Future<String>> futures = callConcurrently(() -> api.greeting("foo"), 2);
+
+        for (Future<String> future : futures)
+            then(future.get()).startsWith("hi, a");
+        then(fixture.requestCount()).isEqualTo(1);
+        then(fixture.document()).isEqualTo("query { a0: greeting(who: 'foo') a1: greeting(who: 'foo') }");
+    }
+
+    @Test void shouldNotBatchCallsWithDifferentDynamicHeaders() throws Exception {
+        ThreadLocal<String> user = new ThreadLocal<>();
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(200)
+            .header(new GraphQlClientHeader("User", user::get))
+            .build(GreetingApi.class);
+
+        Future<String> alice = executor.submit(() -> {
+            user.set("alice");
+            return api.greeting("foo");
+        });
+        Future<String> bob = executor.submit(() -> {
+            user.set("bob");
+            return api.greeting("bar");
+        });
+
+        then(alice.get()).isEqualTo("hi");
+        then(bob.get()).isEqualTo("hi");
+        then(fixture.requestCount()).isEqualTo(2);
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("User"))
+            .containsExactlyInAnyOrder("alice", "bob");
+        then(fixture.queries()).containsExactlyInAnyOrder("greeting(who: 'foo')", "greeting(who: 'bar')");
+    }
+
+    @Test void shouldFailOnlyCallWithErrorPath() throws Exception {
+        fixture.returns(Response.ok("{" +
+            "\"errors\":[{\"message\":\"failed\",\"path\":[\"a1\"]}]," +
+            "\"data\":{\"a0\":\"hi, a0\",\"a1\":null}}").build());
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        Future<String> foo = executor.submit(() -> api.greeting("foo"));
+        Future<String> bar = executor.submit(() -> api.greeting("bar"));
+
+        awaitDone(foo, bar);
+        Future<String> succeeded = aliases().get("foo").equals("a0") ? foo : bar;
+        Future<String> failed = (succeeded == foo) ? bar : foo;
+        then(succeeded.get()).isEqualTo("hi, a0");
+        ExecutionException thrown = catchThrowableOfType(failed::get, ExecutionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessageStartingWith("errors from service: [{\"message\":\"failed\",\"path\":[\"a1\"]}]:\n  {\"query\":\"query { a");
+    }
+
+    @Test void shouldFailOnlyCallWithUndecodableData() throws Exception {
+        fixture.returns(Response.ok("{" +
+            "\"data\":{\"a0\":{\"partial\":[null]},\"a1\":\"hi, a1\"}," +
+            "\"errors\":[{\"message\":\"failed\",\"path\":[\"a0\"]}]}").build());
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        Future<String> foo = executor.submit(() -> api.greeting("foo"));
+        Future<String> bar = executor.submit(() -> api.greeting("bar"));
+
+        awaitDone(foo, bar);
+        Future<String> failed = aliases().get("foo").equals("a0") ? foo : bar;
+        Future<String> succeeded = (failed == foo) ? bar : foo;
+        then(succeeded.get()).isEqualTo("hi, a1");
+        ExecutionException thrown = catchThrowableOfType(failed::get, ExecutionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessageStartingWith("errors from service: [{\"message\":\"failed\",\"path\":[\"a0\"]}]");
+        then(thrown.getCause().getSuppressed()).hasSize(1);
+    }
+
+    @Test void shouldFailOnlyCallWithUndecodableDataWithoutError() throws Exception {
+        fixture.returns(Response.ok("{\"data\":{\"a0\":[\"x\",{\"y\":1}],\"a1\":\"hi, a1\"}}").build());
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        Future<String> foo = executor.submit(() -> api.greeting("foo"));
+        Future<String> bar = executor.submit(() -> api.greeting("bar"));
+
+        awaitDone(foo, bar);
+        Future<String> failed = aliases().get("foo").equals("a0") ? foo : bar;
+        Future<String> succeeded = (failed == foo) ? bar : foo;
+        then(succeeded.get()).isEqualTo("hi, a1");
+        ExecutionException thrown = catchThrowableOfType(failed::get, ExecutionException.class);
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessageStartingWith("invalid java.lang.String value for ");
+    }
+
+    @Test void shouldFailAllCallsWithErrorWithoutPath() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        List<Future<String>> futures = callConcurrently(() -> api.greeting("foo"), 2);
+
+        for (Future<String> future : futures) {
+            ExecutionException thrown = catchThrowableOfType(future::get, ExecutionException.class);
+            then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+                .hasMessageStartingWith("errors from service: [{\"message\":\"failed\"}]:");
+        }
+    }
+
+    @Test void shouldFailAllCallsOnStatus() {
+        fixture.returns(Response.serverError().entity("failed").build());
+        GreetingApi api = fixture.builder().batchSize(2).batchWindowMillis(60_000).build(GreetingApi.class);
+
+        List<Future<String>> futures = callConcurrently(() -> api.greeting("foo"), 2);
+
+        for (Future<String> future : futures) {
+            ExecutionException thrown = catchThrowableOfType(future::get, ExecutionException.class);
+            then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+                .hasMessage("expected successful status code but got 500 Internal Server Error:\nfailed");
+        }
+    }
+
+
+    @GraphQlClientApi(batchSize = 2, batchWindowMillis = 60_000)
+    interface MutationApi {
+        @Mutation String greet(String who);
+    }
+
+    @Test void shouldNotBatchMutations() throws Exception {
+        fixture.returnsData("'greet':'hi'");
+        MutationApi api = fixture.builder().build(MutationApi.class);
+
+        List<Future<String>> futures = callConcurrently(() -> api.greet("foo"), 2);
+
+        for (Future<String> future : futures)
+            then(future.get()).isEqualTo("hi");
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+}
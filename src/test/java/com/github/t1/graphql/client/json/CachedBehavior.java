@@ -0,0 +1,373 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.CacheStatistics;
+import com.github.t1.graphql.client.api.Cached;
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.eclipse.microprofile.graphql.Query;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.t1.graphql.client.json.GraphQlClientFixture.callBlocking;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class CachedBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    interface CountryApi {
+        @Cached(ttl = "1h", maxEntries = 2)
+        Country country(String code);
+
+        @Cached(ttl = "50ms")
+        Country shortLived(String code);
+
+        Country uncached(String code);
+    }
+
+    @AllArgsConstructor @NoArgsConstructor(force = true)
+    @Data static class Country {
+        String code;
+        String name;
+    }
+
+    private void thenStatistics(CountryApi api, int hits, int misses, int evictions, int size) {
+        CacheStatistics statistics = CacheStatistics.of(api, "country");
+        then(statistics.getHits()).describedAs("hits").isEqualTo(hits);
+        then(statistics.getMisses()).describedAs("misses").isEqualTo(misses);
+        then(statistics.getEvictions()).describedAs("evictions").isEqualTo(evictions);
+        then(statistics.getSize()).describedAs("size").isEqualTo(size);
+    }
+
+    @Test void shouldCacheQueryResult() {
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        Country first = api.country("DE");
+        Country second = api.country("DE");
+
+        then(first).isEqualTo(new Country("DE", "Germany"));
+        then(second).isSameAs(first);
+        then(fixture.requestCount()).isEqualTo(1);
+        thenStatistics(api, 1, 1, 0, 1);
+    }
+
+    @Test void shouldCacheByArguments() {
+        fixture.returnsData("'country':{'code':'XX','name':'Some'}");
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        api.country("DE");
+        api.country("FR");
+
+        then(fixture.queries()).containsExactly(
+            "country(code: 'DE') {code name}",
+            "country(code: 'FR') {code name}");
+        thenStatistics(api, 0, 2, 0, 2);
+    }
+
+    @Test void shouldEvictLeastRecentlyUsed() {
+        fixture.returnsData("'country':{'code':'XX','name':'Some'}");
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        api.country("DE");
+        api.country("FR");
+        api.country("DE");
+        api.country("IT"); // evicts FR
+        api.country("DE");
+        api.country("FR");
+
+        then(fixture.requestCount()).isEqualTo(4);
+        thenStatistics(api, 2, 4, 2, 2);
+    }
+
+    @Test void shouldExpireAfterTtl() throws Exception {
+        fixture.returnsData("'shortLived':{'code':'DE','name':'Germany'}");
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        api.shortLived("DE");
+        Thread.sleep(100);
+        api.shortLived("DE");
+
+        then(fixture.requestCount()).isEqualTo(2);
+        CacheStatistics statistics = CacheStatistics.of(api, "shortLived");
+        then(statistics.getMisses()).isEqualTo(2);
+        then(statistics.getEvictions()).isEqualTo(1);
+    }
+
+    @Test void shouldNotCacheErrors() {
+        fixture.returns(
+            Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build(),
+            Response.ok("{\"data\":{\"country\":{\"code\":\"DE\",\"name\":\"Germany\"}}}").build());
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        catchThrowableOfType(() -> api.country("DE"), GraphQlClientException.class);
+        Country country = api.country("DE");
+
+        then(country).isEqualTo(new Country("DE", "Germany"));
+        then(fixture.requestCount()).isEqualTo(2);
+        thenStatistics(api, 0, 2, 0, 1);
+    }
+
+    @Test void shouldNotCacheUnannotatedQuery() {
+        fixture.returnsData("'uncached':{'code':'DE','name':'Germany'}");
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        api.uncached("DE");
+        api.uncached("DE");
+
+        then(fixture.requestCount()).isEqualTo(2);
+        GraphQlClientException thrown = catchThrowableOfType(() -> CacheStatistics.of(api, "uncached"), GraphQlClientException.class);
+        then(thrown).hasMessage("no @Cached method 'uncached'");
+    }
+
+
+    @Test void shouldCacheByDynamicHeaders() {
+        AtomicReference<Object> user = new AtomicReference<>("alice");
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        CountryApi api = fixture.builder().header(new GraphQlClientHeader("User", user::get)).build(CountryApi.class);
+
+        Country alice = api.country("DE");
+        user.set("bob");
+        Country bob = api.country("DE");
+        user.set("alice");
+        Country aliceAgain = api.country("DE");
+
+        then(bob).isNotSameAs(alice);
+        then(aliceAgain).isSameAs(alice);
+        then(fixture.requestCount()).isEqualTo(2);
+        thenStatistics(api, 1, 2, 0, 2);
+    }
+
+    @Test void shouldSendDynamicHeaderValuesTheResultIsCachedBy() {
+        AtomicInteger evaluations = new AtomicInteger();
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        CountryApi api = fixture.builder()
+            .header(new GraphQlClientHeader("User", () -> "user-" + evaluations.incrementAndGet()))
+            .build(CountryApi.class);
+
+        api.country("DE");
+        api.country("DE");
+
+        then(evaluations).hasValue(2);
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("User")).containsExactly("user-1", "user-2");
+        thenStatistics(api, 0, 2, 0, 2);
+    }
+
+
+    @GraphQlClientApi(singleFlight = true)
+    interface SingleFlightCountryApi {
+        @Cached Country country(String code);
+
+        @Query("country") Country uncachedCountry(String code);
+    }
+
+    @Test void shouldNotJoinUncachedCallInFlight() {
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        fixture.holdResponses();
+        SingleFlightCountryApi api = fixture.builder().build(SingleFlightCountryApi.class);
+
+        CompletableFuture<Country> uncached = callBlocking(() -> api.uncachedCountry("DE"));
+        CompletableFuture<Country> cached = callBlocking(() -> api.country("DE"));
+        fixture.releaseResponses();
+
+        then(uncached.join()).isEqualTo(new Country("DE", "Germany"));
+        then(cached.join()).isEqualTo(new Country("DE", "Germany"));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldNotJoinCachedCallInFlight() {
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        fixture.holdResponses();
+        SingleFlightCountryApi api = fixture.builder().build(SingleFlightCountryApi.class);
+
+        CompletableFuture<Country> cached = callBlocking(() -> api.country("DE"));
+        CompletableFuture<Country> uncached = callBlocking(() -> api.uncachedCountry("DE"));
+        fixture.releaseResponses();
+
+        then(cached.join()).isEqualTo(new Country("DE", "Germany"));
+        then(uncached.join()).isEqualTo(new Country("DE", "Germany"));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldJoinCachedCallInFlight() {
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        fixture.holdResponses();
+        SingleFlightCountryApi api = fixture.builder().build(SingleFlightCountryApi.class);
+
+        CompletableFuture<Country> first = callBlocking(() -> api.country("DE"));
+        CompletableFuture<Country> second = callBlocking(() -> api.country("DE"));
+        fixture.releaseResponses();
+
+        then(second.join()).isSameAs(first.join());
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+
+    interface OverloadedApi {
+        @Cached Country country(String code);
+
+        @Cached Country country(int number);
+    }
+
+    @Test void shouldFailToGetStatisticsOfOverloadedMethod() {
+        OverloadedApi api = fixture.builder().build(OverloadedApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(() -> CacheStatistics.of(api, "country"), GraphQlClientException.class);
+
+        then(thrown).hasMessage("ambiguous @Cached method 'country'; it's overloaded");
+    }
+
+
+    interface EmptyCacheApi {
+        @Cached(maxEntries = 0) Country country(String code);
+    }
+
+    @Test void shouldFailToBuildWithEmptyCache() {
+        GraphQlClientException thrown = catchThrowableOfType(() -> fixture.builder().build(EmptyCacheApi.class), GraphQlClientException.class);
+
+        then(thrown).hasMessage("invalid maxEntries 0; must be positive");
+    }
+
+
+    interface CachedMutationApi {
+        @Cached @Mutation Country add(String code);
+    }
+
+    @Test void shouldFailToBuildCachedMutation() {
+        GraphQlClientException thrown = catchThrowableOfType(() -> fixture.builder().build(CachedMutationApi.class), GraphQlClientException.class);
+
+        then(thrown).hasMessage("@Cached is only allowed on blocking queries, but " + CachedMutationApi.class.getName() + "#add is not");
+    }
+
+
+    interface IsoTtlApi {
+        @Cached(ttl = "PT1M") Country country(String code);
+    }
+
+    @Test void shouldCacheWithIsoTtl() {
+        fixture.returnsData("'country':{'code':'DE','name':'Germany'}");
+        IsoTtlApi api = fixture.builder().build(IsoTtlApi.class);
+
+        api.country("DE");
+        api.country("DE");
+
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+
+    interface InvalidTtlApi {
+        @Cached(ttl = "soon") Country country(String code);
+    }
+
+    @Test void shouldFailToBuildWithInvalidTtl() {
+        GraphQlClientException thrown = catchThrowableOfType(() -> fixture.builder().build(InvalidTtlApi.class), GraphQlClientException.class);
+
+        then(thrown).hasMessage("invalid duration 'soon'");
+    }
+
+    private static Response country(String name, String header, String value) {
+        return Response.ok("{\"data\":{\"shortLived\":{\"code\":\"DE\",\"name\":\"" + name + "\"}}}")
+            .header(header, value).build();
+    }
+
+    @Test void shouldRevalidateExpiredResultWithEntityTag() throws Exception {
+        fixture.returns(
+            country("Germany", "ETag", "\"v1\""),
+            Response.notModified().header("ETag", "\"v1\"").build());
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        Country first = api.shortLived("DE");
+        Thread.sleep(100);
+        Country second = api.shortLived("DE");
+
+        then(second).isSameAs(first);
+        then(fixture.requestCount()).isEqualTo(2);
+        List<MultivaluedMap<String, Object>> headers = fixture.allSentHeaders();
+        then(headers.get(0)).doesNotContainKey("If-None-Match");
+        then(headers.get(1).getFirst("If-None-Match")).isEqualTo("\"v1\"");
+        CacheStatistics statistics = CacheStatistics.of(api, "shortLived");
+        then(statistics.getMisses()).isEqualTo(1);
+        then(statistics.getNotModified()).isEqualTo(1);
+        then(statistics.getEvictions()).isEqualTo(0);
+    }
+
+    @Test void shouldRevalidateExpiredResultWithLastModified() throws Exception {
+        String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        fixture.returns(
+            country("Germany", "Last-Modified", lastModified),
+            Response.notModified().build());
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        Country first = api.shortLived("DE");
+        Thread.sleep(100);
+        Country second = api.shortLived("DE");
+        Thread.sleep(100);
+        Country third = api.shortLived("DE");
+
+        then(second).isSameAs(first);
+        then(third).isSameAs(first);
+        List<MultivaluedMap<String, Object>> headers = fixture.allSentHeaders();
+        then(headers.get(1).getFirst("If-Modified-Since")).isEqualTo(lastModified);
+        then(headers.get(2).getFirst("If-Modified-Since")).isEqualTo(lastModified);
+        then(CacheStatistics.of(api, "shortLived").getNotModified()).isEqualTo(2);
+    }
+
+    @Test void shouldReplaceModifiedResult() throws Exception {
+        fixture.returns(
+            country("Germany", "ETag", "\"v1\""),
+            country("Deutschland", "ETag", "\"v2\""),
+            Response.notModified().build());
+        CountryApi api = fixture.builder().build(CountryApi.class);
+
+        api.shortLived("DE");
+        Thread.sleep(100);
+        Country second = api.shortLived("DE");
+        Thread.sleep(100);
+        Country third = api.shortLived("DE");
+
+        then(second).isEqualTo(new Country("DE", "Deutschland"));
+        then(third).isSameAs(second);
+        List<MultivaluedMap<String, Object>> headers = fixture.allSentHeaders();
+        then(headers.get(1).getFirst("If-None-Match")).isEqualTo("\"v1\"");
+        then(headers.get(2).getFirst("If-None-Match")).isEqualTo("\"v2\"");
+        CacheStatistics statistics = CacheStatistics.of(api, "shortLived");
+        then(statistics.getMisses()).isEqualTo(2);
+        then(statistics.getNotModified()).isEqualTo(1);
+    }
+
+
+    interface NoRevalidateApi {
+        @Cached(ttl = "50ms", revalidate = false) Country shortLived(String code);
+    }
+
+    @Test void shouldNotRevalidateWhenDisabled() throws Exception {
+        fixture.returns(country("Germany", "ETag", "\"v1\""));
+        NoRevalidateApi api = fixture.builder().build(NoRevalidateApi.class);
+
+        api.shortLived("DE");
+        Thread.sleep(100);
+        api.shortLived("DE");
+
+        then(fixture.allSentHeaders().get(1)).doesNotContainKey("If-None-Match");
+        CacheStatistics statistics = CacheStatistics.of(api, "shortLived");
+        then(statistics.getMisses()).isEqualTo(2);
+        then(statistics.getEvictions()).isEqualTo(1);
+    }
+
+    @Test void shouldFailToGetStatisticsOfNonApi() {
+        GraphQlClientException thrown = catchThrowableOfType(() -> CacheStatistics.of("foo", "bar"), GraphQlClientException.class);
+
+        then(thrown).hasMessage("not a GraphQL client api: foo");
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.t1.graphql.client.json;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class CompressionBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    interface GreetingApi {
+        String greeting(String who);
+    }
+
+    private interface Compressor {
+        OutputStream compress(OutputStream out) throws IOException;
+    }
+
+    @SneakyThrows(IOException.class)
+    private static Response compressed(String body, String encoding, Compressor compressor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = compressor.compress(bytes)) {
+            out.write(body.getBytes(UTF_8));
+        }
+        return Response.ok(new ByteArrayInputStream(bytes.toByteArray())).header("Content-Encoding", encoding).build();
+    }
+
+    @Test void shouldAcceptCompressedResponses() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.sentHeader("Accept-Encoding")).isEqualTo("gzip, deflate");
+    }
+
+    @Test void shouldReadGzippedResponse() {
+        fixture.returns(compressed("{\"data\":{\"greeting\":\"hi, foo\"}}", "gzip", GZIPOutputStream::new));
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldReadDeflatedResponse() {
+        fixture.returns(compressed("{\"data\":{\"greeting\":\"hi, foo\"}}", "deflate", DeflaterOutputStream::new));
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldNotAcceptCompressedResponsesWhenDisabled() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().gzip(false).build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.sentHeaders()).doesNotContainKey("Accept-Encoding");
+    }
+
+    @Test void shouldNotAcceptCompressedResponsesWhenConfiguredOff() {
+        System.setProperty(GREETING_API_CONFIG_KEY + "gzip", "false");
+        try {
+            fixture.returnsData("'greeting':'hi'");
+            GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+            api.greeting("foo");
+
+            then(fixture.sentHeaders()).doesNotContainKey("Accept-Encoding");
+        } finally {
+            System.clearProperty(GREETING_API_CONFIG_KEY + "gzip");
+        }
+    }
+
+    @Test void shouldNotCompressRequestsByDefault() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.requestEncodings()).containsExactly((String) null);
+    }
+
+    @Test void shouldCompressLargeRequestsConfiguredWithKey() {
+        System.setProperty("dummy-config-key/mp-graphql/gzip-request-threshold", "50");
+        try {
+            fixture.returnsData("'greeting':'hi'");
+            GreetingApi api = fixture.builder().configKey("dummy-config-key").build(GreetingApi.class);
+
+            api.greeting("foo");
+            api.greeting("some name that makes the request long enough");
+
+            then(fixture.requestEncodings()).containsExactly(null, "gzip");
+            then(fixture.queries()).containsExactly(
+                "greeting(who: 'foo')",
+                "greeting(who: 'some name that makes the request long enough')");
+        } finally {
+            System.clearProperty("dummy-config-key/mp-graphql/gzip-request-threshold");
+        }
+    }
+
+    @Test void shouldCompressRequestsConfiguredInBuilder() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().gzipRequestThreshold(0).build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.requestEncodings()).containsExactly("gzip");
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+    }
+
+    private static final int GREETING_FOO_LENGTH = "{\"query\":\"query { greeting(who: \\\"foo\\\") }\"}".length();
+
+    @Test void shouldCompressRequestAtThreshold() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().gzipRequestThreshold(GREETING_FOO_LENGTH).build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.requestEncodings()).containsExactly("gzip");
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+    }
+
+    @Test void shouldNotCompressRequestBelowThreshold() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().gzipRequestThreshold(GREETING_FOO_LENGTH + 1).build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.requestEncodings()).containsExactly((String) null);
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+    }
+
+    @Test void shouldCompressLongRequest() {
+        StringBuilder who = new StringBuilder();
+        for (int i = 0; i < 100_000; i++)
+            who.append((char) ('a' + i % 26));
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().gzipRequestThreshold(1000).build(GreetingApi.class);
+
+        api.greeting(who.toString());
+
+        then(fixture.requestEncodings()).containsExactly("gzip");
+        then(fixture.query()).isEqualTo("greeting(who: '" + who + "')");
+    }
+
+    private static final String GREETING_API_CONFIG_KEY = GreetingApi.class.getName() + "/mp-graphql/";
+}
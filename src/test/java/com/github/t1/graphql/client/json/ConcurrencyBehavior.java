@@ -0,0 +1,155 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import com.github.t1.graphql.client.json.InMemoryTransport.InMemoryResponse;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+import lombok.SneakyThrows;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.t1.graphql.client.json.InMemoryTransport.body;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ConcurrencyBehavior {
+    private static final int THREADS = 32;
+    private static final int CALLS_PER_THREAD = 200;
+
+    private static final Pattern FIELD = Pattern.compile("(?:(\\w+): )?(\\w+)\\(who: \"([^\"]*)\"\\)");
+
+    private final Queue<GraphQlTransportRequest> requests = new ConcurrentLinkedQueue<>();
+    /** Answers every field with its name and the <code>who</code> argument, so each caller can check its own result */
+    private final InMemoryTransport transport = new InMemoryTransport(this::echo);
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach void shutdown() { executor.shutdownNow(); }
+
+    private GraphQlTransportResponse echo(GraphQlTransportRequest request) {
+        requests.add(request);
+        Matcher matcher = FIELD.matcher(query(request));
+        StringBuilder data = new StringBuilder();
+        while (matcher.find()) {
+            String key = (matcher.group(1) == null) ? matcher.group(2) : matcher.group(1);
+            data.append((data.length() == 0) ? "" : ",")
+                .append('"').append(key).append("\":\"").append(matcher.group(2)).append(' ').append(matcher.group(3)).append('"');
+        }
+        return new InMemoryResponse(200, "{\"data\":{" + data + "}}");
+    }
+
+    @SneakyThrows(UnsupportedEncodingException.class)
+    private static String query(GraphQlTransportRequest request) {
+        if (request.getBody() == null)
+            return URLDecoder.decode(request.getQueryParameters().get("query"), "UTF-8");
+        return Json.createReader(new StringReader(body(request))).readObject().getString("query");
+    }
+
+    private GraphQlClientBuilder builder() {
+        return GraphQlClientBuilder.newBuilder().endpoint("urn:dummy-endpoint").transport(transport);
+    }
+
+    interface GreetingApi {
+        String greeting(String who);
+
+        String farewell(String who);
+
+        @Mutation String rename(String who);
+    }
+
+    /** Start all threads at the same time, so they really compete; every call checks its own result */
+    private void hammer(GreetingApi api) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    String who = thread + "-" + i;
+                    switch (i % 3) {
+                        case 0:
+                            then(api.greeting(who)).isEqualTo("greeting " + who);
+                            break;
+                        case 1:
+                            then(api.farewell(who)).isEqualTo("farewell " + who);
+                            break;
+                        default:
+                            then(api.rename(who)).isEqualTo("rename " + who);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(); // rethrows assertion errors
+    }
+
+    @Test void shouldCallOneProxyFromManyThreads() throws Exception {
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        hammer(api);
+
+        then(requests).hasSize(THREADS * CALLS_PER_THREAD);
+    }
+
+    @Test void shouldCallOneBatchingProxyFromManyThreads() throws Exception {
+        GreetingApi api = builder().batchSize(8).singleFlight(true).build(GreetingApi.class);
+
+        hammer(api);
+
+        then(requests.size()).describedAs("some calls are batched").isLessThan(THREADS * CALLS_PER_THREAD);
+    }
+
+    @Test void shouldCallOneGetProxyFromManyThreads() throws Exception {
+        GreetingApi api = builder().httpGet(true).build(GreetingApi.class);
+
+        hammer(api);
+
+        then(requests).extracting(GraphQlTransportRequest::getMethod).containsOnly("GET", "POST");
+    }
+
+    @Test void shouldNotChangeBuiltApiWhenBuilderChanges() {
+        GraphQlClientBuilder builder = builder().header("H1", "V1");
+        GreetingApi api = builder.build(GreetingApi.class);
+
+        builder.header("H2", "V2").endpoint("urn:other-endpoint").httpGet(true);
+        api.greeting("foo");
+
+        GraphQlTransportRequest request = requests.remove();
+        then(request.getHeaders()).containsKey("H1").doesNotContainKey("H2");
+        then(request.getUri()).hasToString("urn:dummy-endpoint");
+        then(request.getMethod()).isEqualTo("POST");
+    }
+
+    @GraphQlClientApi(httpGet = true, batchSize = 8)
+    interface AnnotatedApi {
+        String greeting(String who);
+    }
+
+    @Test void shouldNotLeakAnnotationConfigIntoNextBuild() {
+        GraphQlClientBuilder builder = builder();
+        builder.build(AnnotatedApi.class);
+        GreetingApi api = builder.build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        then(requests.remove().getMethod()).isEqualTo("POST");
+    }
+}
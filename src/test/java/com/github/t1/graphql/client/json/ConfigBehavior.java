@@ -1,6 +1,9 @@
 package com.github.t1.graphql.client.json;
 
 import com.github.t1.graphql.client.api.GraphQlClientApi;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigBuilder;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
@@ -86,6 +89,37 @@ class ConfigBehavior {
         }
     }
 
+    /** Like in a plain Java SE application that has only the MP Config API on the classpath */
+    private static class MissingConfigResolver extends ConfigProviderResolver {
+        @Override public Config getConfig() { throw missing(); }
+
+        @Override public Config getConfig(ClassLoader loader) { throw missing(); }
+
+        @Override public ConfigBuilder getBuilder() { throw missing(); }
+
+        @Override public void registerConfig(Config config, ClassLoader classLoader) { throw missing(); }
+
+        @Override public void releaseConfig(Config config) { throw missing(); }
+
+        private static IllegalStateException missing() { return new IllegalStateException("no MP Config implementation"); }
+    }
+
+    @Test void shouldBuildWithoutConfigImplementation() {
+        ConfigProviderResolver resolver = ConfigProviderResolver.instance();
+        ConfigProviderResolver.setInstance(new MissingConfigResolver());
+        try {
+            fixture.returnsData("'foo':true");
+            ConfiguredEndpointApi api = fixture.builderWithoutEndpointConfig().build(ConfiguredEndpointApi.class);
+
+            api.foo();
+
+            then(fixture.endpointUsed()).isEqualTo(DUMMY_ENDPOINT_URI);
+            then(fixture.sentHeader("Accept-Encoding")).isEqualTo("gzip, deflate");
+        } finally {
+            ConfigProviderResolver.setInstance(resolver);
+        }
+    }
+
     private static final String API_URL_CONFIG_KEY = Api.class.getName() + "/mp-graphql/url";
     private static final String DUMMY_ENDPOINT = "http://dummy-configured-endpoint";
     private static final URI DUMMY_ENDPOINT_URI = URI.create(DUMMY_ENDPOINT);
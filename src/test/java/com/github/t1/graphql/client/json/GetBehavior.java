@@ -0,0 +1,126 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.HttpGet;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class GetBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    @GraphQlClientApi(httpGet = true)
+    interface GreetingApi {
+        String greeting(String who);
+
+        CompletionStage<String> greetingAsync(String who);
+
+        @HttpGet(false) String posted(String who);
+
+        @Mutation String greet(String who);
+    }
+
+    @Test void shouldGetQuery() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(fixture.httpMethods()).containsExactly("GET");
+        then(fixture.query()).isEqualTo("greeting(who: 'foo')");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldGetAsyncQuery() {
+        fixture.returnsData("'greetingAsync':'hi, foo'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        String greeting = api.greetingAsync("foo").toCompletableFuture().join();
+
+        then(fixture.httpMethods()).containsExactly("GET");
+        then(fixture.query()).isEqualTo("greetingAsync(who: 'foo')");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldGetQueryWithVariablesAndOperationName() {
+        fixture.returnsData("'greeting':'hi, foo & bar'");
+        GreetingApi api = fixture.builder().variables(true).build(GreetingApi.class);
+
+        String greeting = api.greeting("foo & bar {?}");
+
+        then(fixture.httpMethods()).containsExactly("GET");
+        then(fixture.document()).isEqualTo("query greeting($who: String) { greeting(who: $who) }");
+        then(fixture.requestJson().getString("operationName")).isEqualTo("greeting");
+        then(fixture.variables()).isEqualTo("{'who':'foo & bar {?}'}");
+        then(greeting).isEqualTo("hi, foo & bar");
+    }
+
+    @Test void shouldPostQueryAnnotatedNotToGet() {
+        fixture.returnsData("'posted':'hi, foo'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        api.posted("foo");
+
+        then(fixture.httpMethods()).containsExactly("POST");
+    }
+
+    @Test void shouldPostMutation() {
+        fixture.returnsData("'greet':'hi, foo'");
+        GreetingApi api = fixture.builder().build(GreetingApi.class);
+
+        api.greet("foo");
+
+        then(fixture.httpMethods()).containsExactly("POST");
+        then(fixture.mutation()).isEqualTo("greet(who: 'foo')");
+    }
+
+    @Test void shouldPostQueryWhenUrlIsTooLong() {
+        fixture.returnsData("'greeting':'hi'");
+        GreetingApi api = fixture.builder().maxGetUrlLength(100).build(GreetingApi.class);
+
+        api.greeting("foo");
+        api.greeting("some much longer name that makes the url too long");
+
+        then(fixture.httpMethods()).containsExactly("GET", "POST");
+        then(fixture.queries()).containsExactly(
+            "greeting(who: 'foo')",
+            "greeting(who: 'some much longer name that makes the url too long')");
+    }
+
+
+    interface PostApi {
+        String greeting(String who);
+
+        @HttpGet String gotten(String who);
+    }
+
+    @Test void shouldPostQueryByDefault() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        PostApi api = fixture.builder().build(PostApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.httpMethods()).containsExactly("POST");
+    }
+
+    @Test void shouldGetQueryAnnotatedToGet() {
+        fixture.returnsData("'gotten':'hi, foo'");
+        PostApi api = fixture.builder().build(PostApi.class);
+
+        api.gotten("foo");
+
+        then(fixture.httpMethods()).containsExactly("GET");
+    }
+
+    @Test void shouldGetQueryConfiguredInBuilder() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        PostApi api = fixture.builder().httpGet(true).build(PostApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.httpMethods()).containsExactly("GET");
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import com.github.t1.graphql.client.cdi.GraphQlClientBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.Mockito.mock;
+
+class GraphQlClientBeanBehavior {
+    private final GraphQlStubServer server = GraphQlStubServer.start();
+    @SuppressWarnings("unchecked")
+    private final CreationalContext<Object> context = mock(CreationalContext.class);
+    private final AtomicInteger headerLookups = new AtomicInteger();
+    private final List<String> endpointConfigKeys = new ArrayList<>();
+
+    @AfterEach void stop() {
+        endpointConfigKeys.forEach(System::clearProperty);
+        server.close();
+    }
+
+    interface Api {
+        String greeting();
+    }
+
+    @ApplicationScoped
+    interface ApplicationScopedApi extends Api {}
+
+    @RequestScoped
+    interface RequestScopedApi extends Api {}
+
+    @Singleton
+    interface SingletonApi extends Api {}
+
+    private <T> GraphQlClientBean<T> bean(Class<T> api, List<GraphQlClientHeader> headers) {
+        String endpointConfigKey = api.getName() + "/mp-graphql/url";
+        System.setProperty(endpointConfigKey, server.getEndpoint().toString());
+        endpointConfigKeys.add(endpointConfigKey);
+        return new GraphQlClientBean<>(api, () -> {
+            headerLookups.incrementAndGet();
+            return headers;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T create(GraphQlClientBean<T> bean) { return bean.create((CreationalContext<T>) context); }
+
+    @Test void shouldDefaultToDependentScope() {
+        then(bean(Api.class, emptyList()).getScope()).isEqualTo(Dependent.class);
+    }
+
+    @Test void shouldUseNormalScopeOfApi() {
+        then(bean(RequestScopedApi.class, emptyList()).getScope()).isEqualTo(RequestScoped.class);
+    }
+
+    @Test void shouldUsePseudoScopeOfApi() {
+        then(bean(SingletonApi.class, emptyList()).getScope()).isEqualTo(Singleton.class);
+    }
+
+    @Test void shouldShareProxyOfDependentApi() {
+        GraphQlClientBean<Api> bean = bean(Api.class, emptyList());
+
+        Api first = create(bean);
+        Api second = create(bean);
+
+        then(second).isSameAs(first);
+        then(headerLookups).hasValue(1);
+    }
+
+    @Test void shouldLeaveSharingOfApplicationScopedApiToContext() {
+        GraphQlClientBean<ApplicationScopedApi> bean = bean(ApplicationScopedApi.class, emptyList());
+
+        ApplicationScopedApi first = create(bean);
+        ApplicationScopedApi second = create(bean);
+
+        then(second).isNotSameAs(first);
+    }
+
+    @Test void shouldBuildProxyForEveryRequestContext() {
+        GraphQlClientBean<RequestScopedApi> bean = bean(RequestScopedApi.class, emptyList());
+
+        RequestScopedApi first = create(bean);
+        RequestScopedApi second = create(bean);
+
+        then(second).isNotSameAs(first);
+        then(headerLookups).hasValue(2);
+    }
+
+    @Test void shouldTakeHeaderBeanValueForEveryRequest() {
+        AtomicReference<String> tenant = new AtomicReference<>("foo");
+        // like a CDI client proxy of a @RequestScoped bean created with the constructor for constant values
+        GraphQlClientHeader header = new GraphQlClientHeader("Tenant", "initial") {
+            @Override public Object getValue() { return tenant.get(); }
+        };
+        server.respondData("\"greeting\":\"hi\"");
+        Api api = create(bean(Api.class, singletonList(header)));
+
+        api.greeting();
+        tenant.set("bar");
+        api.greeting();
+
+        then(server.getRequestHeaders()).extracting(headers -> headers.get("Tenant")).containsExactly(
+            singletonList("foo"), singletonList("bar"));
+    }
+}
@@ -1,38 +1,175 @@
 package com.github.t1.graphql.client.json;
 
 import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import lombok.SneakyThrows;
 import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 
 import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.CompletionStageRxInvoker;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPInputStream;
+import java.util.function.Supplier;
 
+import static java.lang.Thread.State.WAITING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 class GraphQlClientFixture {
     private final Client mockClient = mock(Client.class);
     private final Invocation.Builder mockInvocationBuilder = mock(Invocation.Builder.class);
-    private Response response;
+    private final Queue<Response> responses = new LinkedList<>();
+    /** The bodies of the POST requests or the parameters of the GET requests, written as json */
+    private final List<Supplier<String>> requestEntities = new ArrayList<>();
+    private final List<String> httpMethods = new ArrayList<>();
+    private final List<String> requestEncodings = new ArrayList<>();
+    /** The query parameters of the GET request being built in this thread */
+    private final ThreadLocal<Map<String, String>> queryParams = ThreadLocal.withInitial(LinkedHashMap::new);
+    /** The headers of all requests, in sequence */
+    private final List<MultivaluedMap<String, Object>> sentHeaders = new ArrayList<>();
+    /** The headers of the request being built in this thread */
+    private final ThreadLocal<MultivaluedMap<String, Object>> headers = new ThreadLocal<>();
+    private volatile CountDownLatch responseGate = new CountDownLatch(0);
 
     GraphQlClientFixture() {
         WebTarget mockWebTarget = mock(WebTarget.class);
 
         given(mockClient.target(any(URI.class))).willReturn(mockWebTarget);
-        given(mockWebTarget.request(APPLICATION_JSON_TYPE)).willReturn(mockInvocationBuilder);
-        given(mockInvocationBuilder.headers(any())).willReturn(mockInvocationBuilder);
-        given(mockInvocationBuilder.post(any())).will(i -> response);
+        given(mockWebTarget.getUri()).willReturn(URI.create("urn:dummy-endpoint"));
+        given(mockWebTarget.queryParam(anyString(), any())).will(i -> {
+            queryParams.get().put(i.getArgument(0), i.getArgument(1));
+            return mockWebTarget;
+        });
+        given(mockWebTarget.request(APPLICATION_JSON_TYPE)).will(i -> {
+            headers.set(new MultivaluedHashMap<>());
+            synchronized (this) {
+                sentHeaders.add(headers.get());
+            }
+            return mockInvocationBuilder;
+        });
+        given(mockInvocationBuilder.header(anyString(), any())).will(i -> {
+            headers.get().add(i.getArgument(0), i.getArgument(1));
+            return mockInvocationBuilder;
+        });
+        given(mockInvocationBuilder.post(any())).will(i -> respond("POST", posted(i.getArgument(0))));
+        given(mockInvocationBuilder.get()).will(i -> respond("GET", got()));
+        CompletionStageRxInvoker mockRxInvoker = mock(CompletionStageRxInvoker.class);
+        given(mockInvocationBuilder.rx()).willReturn(mockRxInvoker);
+        given(mockRxInvoker.post(any())).will(i -> {
+            Supplier<String> body = posted(i.getArgument(0));
+            return supplyAsync(() -> respondUnchecked("POST", body));
+        });
+        given(mockRxInvoker.get()).will(i -> {
+            Supplier<String> params = got();
+            return supplyAsync(() -> respondUnchecked("GET", params));
+        });
+    }
+
+    private synchronized Supplier<String> posted(Entity<StreamingOutput> entity) {
+        requestEncodings.add(entity.getEncoding());
+        return () -> body(entity);
+    }
+
+    /** Decode the query parameters like a server would and write them as a json request */
+    @SneakyThrows(UnsupportedEncodingException.class)
+    private Supplier<String> got() {
+        JsonObjectBuilder json = Json.createObjectBuilder();
+        for (Map.Entry<String, String> param : queryParams.get().entrySet()) {
+            String value = URLDecoder.decode(param.getValue(), "UTF-8");
+            if (param.getKey().equals("variables") || param.getKey().equals("extensions"))
+                json.add(param.getKey(), Json.createReader(new StringReader(value)).readObject());
+            else
+                json.add(param.getKey(), value);
+        }
+        queryParams.remove();
+        String body = json.build().toString();
+        return () -> body;
+    }
+
+    private Response respond(String httpMethod, Supplier<String> requestEntity) throws InterruptedException {
+        Response response;
+        synchronized (this) {
+            httpMethods.add(httpMethod);
+            requestEntities.add(requestEntity);
+            response = (responses.size() > 1) ? responses.remove() : responses.peek();
+        }
+        responseGate.await();
+        return stream(response);
+    }
+
+    @SneakyThrows(InterruptedException.class)
+    private Response respondUnchecked(String httpMethod, Supplier<String> requestEntity) {
+        return respond(httpMethod, requestEntity);
+    }
+
+    /** Start the call in a new thread and wait until it blocks, i.e. waits for a response or for another call */
+    static <T> CompletableFuture<T> callBlocking(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(call.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+        while (thread.getState() != WAITING && !result.isDone())
+            sleep();
+        return result;
+    }
+
+    @SneakyThrows(InterruptedException.class)
+    private static void sleep() { Thread.sleep(1); }
+
+    /** Responses wait until they are {@link #releaseResponses() released} */
+    void holdResponses() {
+        responseGate = new CountDownLatch(1);
+    }
+
+    void releaseResponses() {
+        responseGate.countDown();
+    }
+
+    /** Like a real client, return a fresh response and entity stream for every call, so closing it doesn't matter */
+    private static Response stream(Response response) {
+        if (!(response.getEntity() instanceof String))
+            return Response.fromResponse(response).build();
+        byte[] bytes = ((String) response.getEntity()).getBytes(UTF_8);
+        return Response.fromResponse(response).entity(new ByteArrayInputStream(bytes)).build();
     }
 
     GraphQlClientBuilder builder() {
@@ -44,11 +181,13 @@ class GraphQlClientFixture {
     }
 
     void returnsData(String data) {
-        this.response = Response.ok("{\"data\":{" + data.replace('\'', '\"') + "}}").build();
+        returns(Response.ok("{\"data\":{" + data.replace('\'', '\"') + "}}").build());
     }
 
-    void returns(Response response) {
-        this.response = response;
+    /** The responses are returned in sequence; the last one is repeated */
+    void returns(Response... responses) {
+        this.responses.clear();
+        this.responses.addAll(asList(responses));
     }
 
 
@@ -60,14 +199,74 @@ class GraphQlClientFixture {
         return queryBody(captureRequestEntity(), "query");
     }
 
+    List<String> queries() {
+        return captureRequestEntities().stream()
+            .map(request -> queryBody(request, "query").replace('\"', '\''))
+            .collect(toList());
+    }
+
+    List<String> requests() {
+        return captureRequestEntities().stream().map(request -> request.replace('\"', '\'')).collect(toList());
+    }
+
     String mutation() {
         return queryBody(captureRequestEntity(), "mutation").replace('\"', '\'');
     }
 
-    private String captureRequestEntity() {
-        @SuppressWarnings("unchecked") ArgumentCaptor<Entity<String>> captor = ArgumentCaptor.forClass(Entity.class);
-        BDDMockito.then(mockInvocationBuilder).should().post(captor.capture());
-        return captor.getValue().getEntity();
+    String document() {
+        return requestJson().getString("query").replace('\"', '\'');
+    }
+
+    String variables() {
+        JsonObject request = requestJson();
+        return request.containsKey("variables") ? request.getJsonObject("variables").toString().replace('\"', '\'') : null;
+    }
+
+    JsonObject requestJson() {
+        return Json.createReader(new StringReader(captureRequestEntity())).readObject();
+    }
+
+    synchronized int requestCount() {
+        return requestEntities.size();
+    }
+
+    synchronized List<String> httpMethods() {
+        return new ArrayList<>(httpMethods);
+    }
+
+    /** Blocking or async */
+    private synchronized String captureRequestEntity() {
+        then(requestEntities).hasSize(1);
+        return requestEntities.get(0).get();
+    }
+
+    private synchronized List<String> captureRequestEntities() {
+        then(requestEntities).isNotEmpty();
+        return requestEntities.stream().map(Supplier::get).collect(toList());
+    }
+
+    /** Write the entity like a real client would, and decompress it like a server would */
+    @SneakyThrows(IOException.class)
+    private static String body(Entity<StreamingOutput> entity) {
+        then(entity.getMediaType()).isEqualTo(APPLICATION_JSON_TYPE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.getEntity().write(out);
+        if ("gzip".equals(entity.getEncoding()))
+            return readString(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer))
+            out.write(buffer, 0, n);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    /** The <code>Content-Encoding</code> of the POSTed entities; <code>null</code> if not compressed */
+    synchronized List<String> requestEncodings() {
+        return new ArrayList<>(requestEncodings);
     }
 
     private String queryBody(String response, String operation) {
@@ -90,9 +289,13 @@ class GraphQlClientFixture {
         return captor.getValue();
     }
 
-    MultivaluedMap<String, Object> sentHeaders() {
-        @SuppressWarnings("unchecked") ArgumentCaptor<MultivaluedMap<String, Object>> captor = ArgumentCaptor.forClass(MultivaluedMap.class);
-        BDDMockito.then(mockInvocationBuilder).should().headers(captor.capture());
-        return captor.getValue();
+    synchronized MultivaluedMap<String, Object> sentHeaders() {
+        then(sentHeaders).describedAs("requests").hasSize(1);
+        return sentHeaders.get(0);
+    }
+
+    /** The headers of all requests, in sequence */
+    synchronized List<MultivaluedMap<String, Object>> allSentHeaders() {
+        return new ArrayList<>(sentHeaders);
     }
 }
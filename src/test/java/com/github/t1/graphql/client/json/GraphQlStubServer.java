@@ -0,0 +1,125 @@
+package com.github.t1.graphql.client.json;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A real HTTP server in this JVM, answering GraphQL requests with canned or generated responses
+ * of a configurable size and after a configurable latency. Requests are handled concurrently.
+ */
+class GraphQlStubServer implements AutoCloseable {
+    static {
+        // otherwise Nagle's algorithm and delayed ACKs add 40 ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @SneakyThrows(IOException.class)
+    static GraphQlStubServer start() {
+        return new GraphQlStubServer(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    /** The request bodies, or the query strings of GET requests */
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    /** The request headers, in the same order as the {@link #requests} */
+    private final List<Map<String, List<String>>> requestHeaders = new CopyOnWriteArrayList<>();
+    private volatile Function<String, byte[]> responder = request -> "{\"data\":{}}".getBytes(UTF_8);
+    private volatile long latencyMillis = 0;
+
+    private GraphQlStubServer(HttpServer server) {
+        this.server = server;
+        server.createContext("/graphql", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI getEndpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + "/graphql");
+    }
+
+    List<String> getRequests() { return requests; }
+
+    /** The names are normalized to the first letter in upper case and the rest in lower case */
+    List<Map<String, List<String>>> getRequestHeaders() { return requestHeaders; }
+
+    /** Always respond with this data, e.g. <code>"greeting":"hi"</code> */
+    GraphQlStubServer respondData(String data) {
+        byte[] response = ("{\"data\":{" + data + "}}").getBytes(UTF_8);
+        return respond(request -> response);
+    }
+
+    /** Respond with a list of <code>size</code> heroes, each with a name and a list of abilities */
+    GraphQlStubServer respondHeroes(String field, int size) {
+        StringBuilder out = new StringBuilder("{\"data\":{\"").append(field).append("\":[");
+        for (int i = 0; i < size; i++)
+            out.append((i == 0) ? "" : ",")
+                .append("{\"name\":\"Hero ").append(i).append("\",\"abilities\":[\"flying\",\"swimming\"]}");
+        byte[] response = out.append("]}}").toString().getBytes(UTF_8);
+        return respond(request -> response);
+    }
+
+    /** Generate the response from the request body */
+    GraphQlStubServer respond(Function<String, byte[]> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    GraphQlStubServer latency(Duration latency) {
+        this.latencyMillis = latency.toMillis();
+        return this;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String request = "GET".equals(exchange.getRequestMethod())
+                ? exchange.getRequestURI().getRawQuery()
+                : readString(exchange.getRequestBody());
+            requests.add(request);
+            requestHeaders.add(exchange.getRequestHeaders());
+            if (latencyMillis > 0)
+                Thread.sleep(latencyMillis);
+            byte[] response = responder.apply(request);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String readString(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer))
+            out.write(buffer, 0, n);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    @Override public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -6,8 +6,13 @@ import com.github.t1.graphql.client.api.GraphQlClientHeader;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -36,6 +41,121 @@ class HeaderBehavior {
     }
 
 
+    @Test void shouldEvaluateSupplierForEveryRequest() {
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", counter::incrementAndGet))
+            .build(StringApi.class);
+
+        api.greeting();
+        api.greeting();
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly(1, 2);
+    }
+
+    /** Only moves when the test {@link #advance(Duration) advances} it */
+    private static class TestClock extends Clock {
+        private Instant instant = Instant.now();
+
+        void advance(Duration duration) { instant = instant.plus(duration); }
+
+        @Override public ZoneId getZone() { return ZoneId.systemDefault(); }
+
+        @Override public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+
+        @Override public Instant instant() { return instant; }
+    }
+
+    private final TestClock clock = new TestClock();
+    /** Refresh in the calling thread, after it has taken the current value */
+    private final Executor refresher = Runnable::run;
+
+    @Test void shouldCacheHeaderValue() {
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", counter::incrementAndGet).cached(Duration.ofHours(1)))
+            .build(StringApi.class);
+
+        api.greeting();
+        api.greeting();
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly(1, 1);
+        then(counter).hasValue(1);
+    }
+
+    @Test void shouldRefreshCachedHeaderValueAhead() {
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", counter::incrementAndGet).cached(Duration.ofMinutes(4), refresher, clock))
+            .build(StringApi.class);
+
+        api.greeting();
+        clock.advance(Duration.ofMinutes(2));
+        api.greeting(); // before three quarters of the ttl
+        clock.advance(Duration.ofMinutes(1));
+        api.greeting(); // triggers the refresh
+        api.greeting();
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly(1, 1, 1, 2);
+    }
+
+    @Test void shouldRefreshCachedHeaderValueOnExecutor() {
+        List<Runnable> refreshes = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", counter::incrementAndGet).cached(Duration.ofMinutes(4), refreshes::add, clock))
+            .build(StringApi.class);
+
+        api.greeting();
+        clock.advance(Duration.ofMinutes(3));
+        api.greeting(); // schedules the refresh
+        api.greeting(); // the refresh is already scheduled
+        then(refreshes).hasSize(1);
+        refreshes.get(0).run();
+        api.greeting();
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly(1, 1, 1, 2);
+    }
+
+    @Test void shouldReloadExpiredHeaderValue() {
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", counter::incrementAndGet).cached(Duration.ofMinutes(4), refresher, clock))
+            .build(StringApi.class);
+
+        api.greeting();
+        clock.advance(Duration.ofMinutes(4));
+        api.greeting();
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly(1, 2);
+    }
+
+    @Test void shouldKeepCachedHeaderValueWhenRefreshFails() {
+        AtomicInteger counter = new AtomicInteger();
+        fixture.returnsData("'greeting':'dummy-greeting'");
+        StringApi api = fixture.builder()
+            .header(new GraphQlClientHeader("H", () -> {
+                if (counter.incrementAndGet() > 1)
+                    throw new IllegalStateException("token service down");
+                return "token";
+            }).cached(Duration.ofMinutes(4), refresher, clock))
+            .build(StringApi.class);
+
+        api.greeting();
+        clock.advance(Duration.ofMinutes(3));
+        api.greeting(); // triggers the failing refresh
+        api.greeting(); // triggers the next failing refresh
+
+        then(fixture.allSentHeaders()).extracting(headers -> headers.getFirst("H")).containsExactly("token", "token", "token");
+        then(counter).hasValue(3);
+    }
+
+
     @Test void shouldLoadNonAnnotatedKeyConfigAuthHeader() {
         shouldConfigureAuthHeader("", StringApi.class,
             new GraphQlClientAuthorizationHeader());
@@ -68,7 +188,29 @@ class HeaderBehavior {
     }
 
 
-    private void shouldConfigureAuthHeader(String expectedConfigKey, Class<? extends StringApi> apiClass, GraphQlClientAuthorizationHeader header) {
+    @Test void shouldLoadCachedAuthHeader() {
+        shouldConfigureAuthHeader("", StringApi.class,
+            new GraphQlClientAuthorizationHeader().cached(Duration.ofMinutes(1)));
+    }
+
+    @Test void shouldReadAuthHeaderConfigForEveryRequest() {
+        GraphQlClientAuthorizationHeader header = new GraphQlClientAuthorizationHeader();
+        try {
+            System.setProperty("username", "foo");
+            System.setProperty("password", "bar");
+            Object first = header.getValue();
+            System.setProperty("password", "baz");
+
+            then(first).isEqualTo("Basic Zm9vOmJhcg==");
+            then(header.getValue()).isEqualTo("Basic Zm9vOmJheg==");
+        } finally {
+            System.clearProperty("username");
+            System.clearProperty("password");
+        }
+    }
+
+
+    private void shouldConfigureAuthHeader(String expectedConfigKey, Class<? extends StringApi> apiClass, GraphQlClientHeader header) {
         System.setProperty(expectedConfigKey + "username", "foo");
         System.setProperty(expectedConfigKey + "password", "bar");
         try {
@@ -0,0 +1,81 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.spi.GraphQlTransport;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import com.github.t1.graphql.client.spi.GraphQlTransportResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@link GraphQlTransport} that never leaves the JVM, so only the client itself is exercised.
+ * It's public, so the benchmarks can use it from the test jar.
+ */
+public class InMemoryTransport implements GraphQlTransport {
+    private static final OutputStream NOWHERE = new OutputStream() {
+        @Override public void write(int b) {}
+
+        @Override public void write(byte[] b, int off, int len) {}
+    };
+
+    private final Function<GraphQlTransportRequest, GraphQlTransportResponse> responder;
+
+    /** Writes the request body to nowhere and always returns the same successful response */
+    public InMemoryTransport(byte[] response) {
+        this(request -> {
+            if (request.getBody() != null)
+                write(request, NOWHERE);
+            return new InMemoryResponse(200, response);
+        });
+    }
+
+    public InMemoryTransport(Function<GraphQlTransportRequest, GraphQlTransportResponse> responder) {
+        this.responder = responder;
+    }
+
+    @Override public GraphQlTransportResponse send(GraphQlTransportRequest request) { return responder.apply(request); }
+
+    /** The request body as a string */
+    public static String body(GraphQlTransportRequest request) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(request, out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+
+    private static void write(GraphQlTransportRequest request, OutputStream out) {
+        try {
+            request.getBody().writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static class InMemoryResponse implements GraphQlTransportResponse {
+        private final int status;
+        private final byte[] body;
+
+        public InMemoryResponse(int status, String body) { this(status, body.getBytes(UTF_8)); }
+
+        public InMemoryResponse(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override public int getStatus() { return status; }
+
+        @Override public String getReasonPhrase() { return (status == 200) ? "OK" : "Failed"; }
+
+        @Override public String getHeader(String name) { return null; }
+
+        @Override public InputStream getBody() { return new ByteArrayInputStream(body); }
+
+        @Override public void close() {}
+    }
+}
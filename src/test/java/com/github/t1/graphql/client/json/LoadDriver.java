@@ -0,0 +1,181 @@
+package com.github.t1.graphql.client.json;
+
+import ch.qos.logback.classic.Level;
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import lombok.RequiredArgsConstructor;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.slf4j.Logger.ROOT_LOGGER_NAME;
+
+/**
+ * Runs concurrent callers through an api and reports the latency percentiles of the successful calls,
+ * the number of failed calls, the throughput, and the bytes allocated by the calling threads per call. Run the {@link #main(String...)}
+ * to put load on a proxy with a real HTTP stack against a {@link GraphQlStubServer}.
+ */
+@RequiredArgsConstructor
+class LoadDriver {
+    private final int callers;
+    private final int warmupCallsPerCaller;
+    private final int callsPerCaller;
+
+    @RequiredArgsConstructor
+    static class Report {
+        /** Only of the successful calls: a failure is often much faster or much slower and would skew the percentiles */
+        private final long[] sortedLatencyNanos;
+        private final long durationNanos;
+        private final long allocatedBytes;
+        private final long failures;
+
+        long getCalls() { return sortedLatencyNanos.length + failures; }
+
+        long getFailures() { return failures; }
+
+        /** @param percentile e.g. 99.9; zero if all calls failed */
+        Duration latency(double percentile) {
+            if (sortedLatencyNanos.length == 0)
+                return Duration.ZERO;
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencyNanos.length) - 1;
+            return Duration.ofNanos(sortedLatencyNanos[Math.max(0, index)]);
+        }
+
+        double getCallsPerSecond() { return getCalls() * 1e9 / durationNanos; }
+
+        /** -1 if the JVM can't measure thread allocations */
+        long getAllocatedBytesPerCall() { return (allocatedBytes < 0) ? -1 : allocatedBytes / getCalls(); }
+
+        @Override public String toString() {
+            return String.format("%d calls (%d failed), %.0f calls/s, p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, %d bytes/call",
+                getCalls(), failures, getCallsPerSecond(),
+                millis(latency(50)), millis(latency(99)), millis(latency(99.9)), getAllocatedBytesPerCall());
+        }
+
+        private static double millis(Duration duration) { return duration.toNanos() / 1e6; }
+    }
+
+    Report run(Runnable call) throws InterruptedException {
+        long[] latencies = new long[callers * callsPerCaller];
+        int[] successes = new int[callers];
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch warm = new CountDownLatch(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            int caller = i;
+            int offset = i * callsPerCaller;
+            Thread thread = new Thread(() -> {
+                for (int n = 0; n < warmupCallsPerCaller; n++)
+                    callCounting(call, failures);
+                warm.countDown();
+                awaitUninterruptibly(start);
+                long allocatedBefore = allocatedBytes();
+                for (int n = 0; n < callsPerCaller; n++) {
+                    long begin = System.nanoTime();
+                    if (callCounting(call, failures))
+                        latencies[offset + successes[caller]++] = System.nanoTime() - begin;
+                }
+                long allocatedAfter = allocatedBytes();
+                allocated.accumulateAndGet((allocatedBefore < 0) ? -1 : allocatedAfter - allocatedBefore,
+                    (sum, bytes) -> (sum < 0 || bytes < 0) ? -1 : sum + bytes);
+            }, "load-driver-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        warm.await();
+        failures.set(0);
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        long duration = System.nanoTime() - begin;
+        return new Report(successful(latencies, successes), duration, allocated.get(), failures.get());
+    }
+
+    /** @return <code>true</code> if the call succeeded */
+    private static boolean callCounting(Runnable call, AtomicLong failures) {
+        try {
+            call.run();
+            return true;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            return false;
+        }
+    }
+
+    /** Every caller wrote the latencies of its successful calls to the start of its section */
+    private long[] successful(long[] latencies, int[] successes) {
+        long[] successful = new long[Arrays.stream(successes).sum()];
+        int length = 0;
+        for (int caller = 0; caller < callers; caller++) {
+            System.arraycopy(latencies, caller * callsPerCaller, successful, length, successes[caller]);
+            length += successes[caller];
+        }
+        Arrays.sort(successful);
+        return successful;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The bytes allocated by the current thread so far; -1 if not supported */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    interface HeroesApi {
+        List<Hero> heroes(int count);
+    }
+
+    @SuppressWarnings("unused")
+    static class Hero {
+        String name;
+        List<String> abilities;
+    }
+
+    /** Arguments: callers, calls per caller, list size, server latency in ms, and the connection pool size */
+    public static void main(String... args) throws InterruptedException {
+        int callers = arg(args, 0, 50);
+        int calls = arg(args, 1, 1000);
+        int size = arg(args, 2, 100);
+        int latency = arg(args, 3, 5);
+        int poolSize = arg(args, 4, callers);
+        // debug logging buffers and logs every response
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        try (GraphQlStubServer server = GraphQlStubServer.start()) {
+            server.respondHeroes("heroes", size).latency(Duration.ofMillis(latency));
+            Client client = ((ResteasyClientBuilder) ClientBuilder.newBuilder()).connectionPoolSize(poolSize).build();
+            HeroesApi api = GraphQlClientBuilder.newBuilder()
+                .endpoint(server.getEndpoint())
+                .client(client)
+                .build(HeroesApi.class);
+
+            Report report = new LoadDriver(callers, calls / 10, calls).run(() -> api.heroes(size));
+
+            System.out.println(callers + " callers, " + size + " items, " + latency + " ms latency, pool of " + poolSize + ": " + report);
+            client.close();
+        }
+    }
+
+    private static int arg(String[] args, int index, int defaultValue) {
+        return (args.length > index) ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
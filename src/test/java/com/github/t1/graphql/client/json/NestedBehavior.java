@@ -10,6 +10,7 @@ import lombok.ToString;
 import org.eclipse.microprofile.graphql.NonNull;
 import org.junit.jupiter.api.Test;
 
+import javax.ws.rs.core.Response;
 import java.util.List;
 import java.util.Set;
 
@@ -112,6 +113,42 @@ class NestedBehavior {
     }
 
 
+    @Test void shouldPreferErrorsAfterInvalidNullItem() {
+        fixture.returns(Response.ok("{\"data\":{\"greetings\":[\"a\",null,\"b\"]},\"errors\":[{\"message\":\"failed\"}]}").build());
+        NonNullStringListApi api = fixture.builder().build(NonNullStringListApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greetings, GraphQlClientException.class);
+
+        then(thrown).hasMessageStartingWith("errors from service: [{\"message\":\"failed\"}]");
+        then(thrown.getSuppressed()).hasSize(1);
+        then(thrown.getSuppressed()[0]).hasMessage("invalid null java.lang.String value for " + NonNullStringListApi.class.getName() + "#greetings[1]");
+    }
+
+
+    interface WildcardListApi {
+        List<?> greetings();
+
+        String greeting();
+    }
+
+    @Test void shouldFailToCallWildcardListQuery() {
+        WildcardListApi api = fixture.builder().build(WildcardListApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greetings, GraphQlClientException.class);
+
+        then(thrown).hasMessageStartingWith("unsupported reflection type");
+    }
+
+    @Test void shouldCallOtherMethodOfApiWithWildcardList() {
+        fixture.returnsData("'greeting':'hi'");
+        WildcardListApi api = fixture.builder().build(WildcardListApi.class);
+
+        String greeting = api.greeting();
+
+        then(greeting).isEqualTo("hi");
+    }
+
+
     interface StringArrayApi {
         String[] greetings();
     }
@@ -200,6 +237,27 @@ class NestedBehavior {
         then(thrown).hasMessage("invalid " + Greeting.class.getName() + " value for " + ObjectListApi.class.getName() + "#greetings[1]: 123456");
     }
 
+    @Test void shouldPreferErrorsAfterInvalidNestedObject() {
+        fixture.returns(Response.ok("{\"data\":{\"greetings\":[{\"text\":\"a\",\"code\":{\"x\":[1]},\"more\":[{}]},{\"text\":\"b\"}],\"other\":1}," +
+            "\"errors\":[{\"message\":\"failed\"}]}").build());
+        ObjectListApi api = fixture.builder().build(ObjectListApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greetings, GraphQlClientException.class);
+
+        then(thrown).hasMessageStartingWith("errors from service: [{\"message\":\"failed\"}]");
+        then(thrown.getSuppressed()).hasSize(1);
+    }
+
+    @Test void shouldFailWithDecodeFailureWithoutErrors() {
+        fixture.returnsData("'greetings':[{'text':'a','code':{'x':[1]}}],'other':1");
+        ObjectListApi api = fixture.builder().build(ObjectListApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greetings, GraphQlClientException.class);
+
+        then(thrown).hasMessageStartingWith("invalid int value for " + ObjectListApi.class.getName() + "#greetings[0].code");
+        then(thrown.getSuppressed()).isEmpty();
+    }
+
     @Test void shouldFailToAssignNumberToObjectListQuery() {
         fixture.returnsData("'greetings':[123,456.78]");
         ObjectListApi api = fixture.builder().build(ObjectListApi.class);
@@ -210,6 +268,15 @@ class NestedBehavior {
     }
 
 
+    @Test void shouldFailToAssignStringToFieldInObjectListQuery() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},{'text':'b','code':'x'}]");
+        ObjectListApi api = fixture.builder().build(ObjectListApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greetings, GraphQlClientException.class);
+
+        then(thrown).hasMessage("invalid int value for " + ObjectListApi.class.getName() + "#greetings[1].code: \"x\"");
+    }
+
     interface StringContainerApi {
         StringContainer container();
     }
@@ -327,6 +394,16 @@ class NestedBehavior {
             new Wrapper<>((byte) 123), 3));
     }
 
+    @Test void shouldSkipUnknownFields() {
+        fixture.returnsData("'container':{'unknown':{'a':[1,{'b':2}]},'code':{'value':123},'more':[{}],'count':3}");
+        WrappedByteApi api = fixture.builder().build(WrappedByteApi.class);
+
+        WrappedByteContainer container = api.container();
+
+        then(container).isEqualTo(new WrappedByteContainer(
+            new Wrapper<>((byte) 123), 3));
+    }
+
     @Test void shouldFailToCallWrappedInvalidByteQuery() {
         fixture.returnsData("'container':{'code':{'value':1000},'count':3}");
         WrappedByteApi api = fixture.builder().build(WrappedByteApi.class);
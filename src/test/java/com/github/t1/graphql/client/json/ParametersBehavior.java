@@ -27,6 +27,16 @@ class ParametersBehavior {
         then(greeting).isEqualTo("hi, foo");
     }
 
+    @Test void shouldCallParamQueryRepeatedly() {
+        fixture.returnsData("'greeting':'hi'");
+        ParamApi api = fixture.builder().build(ParamApi.class);
+
+        api.greeting("foo");
+        api.greeting("bar");
+
+        then(fixture.queries()).containsExactly("greeting(who: 'foo')", "greeting(who: 'bar')");
+    }
+
     @Test void shouldEscapeParamScalarQuery() {
         fixture.returnsData("'greeting':'hi, foo'");
         ParamApi api = fixture.builder().build(ParamApi.class);
@@ -138,6 +148,4 @@ class ParametersBehavior {
         then(fixture.query()).isEqualTo("foo(bar: {texts: ['hi', 'ho'], count: 3})");
         then(success).isTrue();
     }
-
-    // TODO params as variables?
 }
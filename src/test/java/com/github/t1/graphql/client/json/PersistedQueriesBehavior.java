@@ -0,0 +1,104 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class PersistedQueriesBehavior {
+    private static final String GREETING_HASH = "b3485885a174bbf015f953d97dd964cbe2a196bcd9153cc48700d2f38e90867b";
+    private static final String GREETING_EXTENSIONS = "'extensions':{'persistedQuery':{'version':1,'sha256Hash':'" + GREETING_HASH + "'}}";
+
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    interface StringApi {
+        String greeting();
+    }
+
+    @Test void shouldSendOnlyHashOfKnownQuery() {
+        fixture.returnsData("'greeting':'hi'");
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        String greeting = api.greeting();
+
+        then(fixture.requests()).containsExactly("{" + GREETING_EXTENSIONS + "}");
+        then(greeting).isEqualTo("hi");
+    }
+
+    @Test void shouldSendFullQueryWhenPersistedQueryNotFound() {
+        fixture.returns(
+            Response.ok("{\"errors\":[{\"message\":\"PersistedQueryNotFound\"}]}").build(),
+            Response.ok("{\"data\":{\"greeting\":\"hi\"}}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        String greeting = api.greeting();
+
+        then(fixture.requests()).containsExactly(
+            "{" + GREETING_EXTENSIONS + "}",
+            "{'query':'query { greeting }'," + GREETING_EXTENSIONS + "}");
+        then(greeting).isEqualTo("hi");
+    }
+
+    @Test void shouldSendFullQueryWhenPersistedQueryNotFoundCode() {
+        fixture.returns(
+            Response.ok("{\"errors\":[{\"message\":\"not found\",\"extensions\":{\"code\":\"PERSISTED_QUERY_NOT_FOUND\"}}]}").build(),
+            Response.ok("{\"data\":{\"greeting\":\"hi\"}}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        String greeting = api.greeting();
+
+        then(fixture.requests()).hasSize(2);
+        then(greeting).isEqualTo("hi");
+    }
+
+    @Test void shouldSendFullQueryOnlyOnce() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"PersistedQueryNotFound\"}]}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greeting, GraphQlClientException.class);
+
+        then(thrown).hasMessageStartingWith("errors from service: [{\"message\":\"PersistedQueryNotFound\"}]");
+        then(fixture.requests()).hasSize(2);
+    }
+
+    @Test void shouldNotSendFullQueryOnOtherErrors() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        StringApi api = fixture.builder().persistedQueries(true).build(StringApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(api::greeting, GraphQlClientException.class);
+
+        then(thrown).hasMessage("errors from service: [{\"message\":\"failed\"}]:\n  {\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"" + GREETING_HASH + "\"}}}");
+        then(fixture.requests()).hasSize(1);
+    }
+
+
+    @GraphQlClientApi(persistedQueries = true, variables = true)
+    interface ParamApi {
+        String greeting(String who);
+    }
+
+    @Test void shouldSendHashOfStaticDocumentWithVariables() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().build(ParamApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(fixture.requests()).containsExactly("{'variables':{'who':'foo'}," +
+            "'extensions':{'persistedQuery':{'version':1,'sha256Hash':'a0d28e83bce1bc173f99ca5af7cdcb1a512ece32720cf08868c9de06474edc3f'}}}");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldSendHashOfInlinedArguments() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().variables(false).build(ParamApi.class);
+
+        api.greeting("foo");
+
+        then(fixture.requests()).containsExactly(
+            "{'extensions':{'persistedQuery':{'version':1,'sha256Hash':'302d8cda43d731e999adc3887a9ac4d086ff517f2a92c6f4ae9396f4d7fa7aea'}}}");
+    }
+}
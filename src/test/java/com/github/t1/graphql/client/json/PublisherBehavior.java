@@ -0,0 +1,158 @@
+package com.github.t1.graphql.client.json;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class PublisherBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+    private final RecordingSubscriber subscriber = new RecordingSubscriber();
+
+    interface GreetingsApi {
+        Publisher<Greeting> greetings();
+    }
+
+    @AllArgsConstructor @NoArgsConstructor(force = true)
+    @Data static class Greeting {
+        String text;
+        int code;
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Object> {
+        private final List<String> events = new ArrayList<>();
+        private Subscription subscription;
+
+        @Override public void onSubscribe(Subscription subscription) { this.subscription = subscription; }
+
+        @Override public void onNext(Object item) { events.add("next " + item); }
+
+        @Override public void onError(Throwable throwable) { events.add("error " + throwable.getMessage()); }
+
+        @Override public void onComplete() { events.add("complete"); }
+    }
+
+    @Test void shouldPublishObjectItems() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},{'text':'b','code':2}]");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        then(fixture.query()).isEqualTo("greetings {text code}");
+        then(subscriber.events).containsExactly(
+            "next " + new Greeting("a", 1),
+            "next " + new Greeting("b", 2),
+            "complete");
+    }
+
+    @Test void shouldSendRequestOnlyOnDemand() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1}]");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+
+        then(fixture.requestCount()).isEqualTo(0);
+        then(subscriber.events).isEmpty();
+    }
+
+    @Test void shouldPublishOnlyRequestedItems() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},{'text':'b','code':2},{'text':'c','code':3}]");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+        api.greetings().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        then(subscriber.events).containsExactly("next " + new Greeting("a", 1));
+
+        subscriber.subscription.request(2);
+        then(subscriber.events).containsExactly(
+            "next " + new Greeting("a", 1),
+            "next " + new Greeting("b", 2),
+            "next " + new Greeting("c", 3),
+            "complete");
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+    @Test void shouldStopPublishingWhenCancelled() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1},{'text':'b','code':2}]");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+        api.greetings().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+
+        then(subscriber.events).containsExactly("next " + new Greeting("a", 1));
+    }
+
+    @Test void shouldPublishNothingForNull() {
+        fixture.returnsData("'greetings':null");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        then(subscriber.events).containsExactly("complete");
+    }
+
+    @Test void shouldPublishErrors() {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        then(subscriber.events).containsExactly(
+            "error errors from service: [{\"message\":\"failed\"}]:\n  {\"query\":\"query { greetings {text code} }\"}");
+    }
+
+    @Test void shouldPublishErrorsAfterData() {
+        fixture.returns(Response.ok("{\"data\":{\"greetings\":[{\"text\":\"a\",\"code\":1}]},\"errors\":[{\"message\":\"failed\"}]}").build());
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        then(subscriber.events).containsExactly(
+            "next " + new Greeting("a", 1),
+            "error errors from service: [{\"message\":\"failed\"}]:\n  {\"query\":\"query { greetings {text code} }\"}");
+    }
+
+    @Test void shouldPublishErrorForNonPositiveRequest() {
+        fixture.returnsData("'greetings':[{'text':'a','code':1}]");
+        GreetingsApi api = fixture.builder().build(GreetingsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        then(subscriber.events).containsExactly("error non-positive request 0");
+        then(fixture.requestCount()).isEqualTo(0);
+    }
+
+
+    interface NonNullStringsApi {
+        Publisher<@NonNull String> greetings();
+    }
+
+    @Test void shouldPublishErrorForInvalidNullItem() {
+        fixture.returnsData("'greetings':['a',null]");
+        NonNullStringsApi api = fixture.builder().build(NonNullStringsApi.class);
+
+        api.greetings().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        then(subscriber.events).containsExactly(
+            "next a",
+            "error invalid null java.lang.String value for " + NonNullStringsApi.class.getName() + "#greetings[1]");
+    }
+}
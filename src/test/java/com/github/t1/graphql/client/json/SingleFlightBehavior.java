@@ -0,0 +1,177 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.eclipse.microprofile.graphql.Query;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.t1.graphql.client.json.GraphQlClientFixture.callBlocking;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class SingleFlightBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    @GraphQlClientApi(singleFlight = true)
+    interface ConfigApi {
+        Config config(String name);
+
+        @Query("config") Optional<Config> maybeConfig(String name);
+
+        @Mutation Config update(String name);
+    }
+
+    @AllArgsConstructor @NoArgsConstructor(force = true)
+    @Data static class Config {
+        String value;
+        int version;
+    }
+
+    @Test void shouldDeduplicateConcurrentQueries() throws Exception {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.config("foo"));
+        fixture.releaseResponses();
+
+        then(first.join()).isEqualTo(new Config("x", 1));
+        then(second.join()).isSameAs(first.join());
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+    @Test void shouldNotDeduplicateQueriesWithDifferentArguments() throws Exception {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.config("bar"));
+        fixture.releaseResponses();
+
+        then(first.join()).isEqualTo(new Config("x", 1));
+        then(second.join()).isEqualTo(new Config("x", 1));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldNotDeduplicateQueriesOfDifferentMethods() throws Exception {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Optional<Config>> second = callBlocking(() -> api.maybeConfig("foo"));
+        fixture.releaseResponses();
+
+        then(first.join()).isEqualTo(new Config("x", 1));
+        then(second.join()).contains(new Config("x", 1));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldNotDeduplicateQueriesWithDifferentDynamicHeaders() throws Exception {
+        AtomicReference<Object> user = new AtomicReference<>("alice");
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().header(new GraphQlClientHeader("User", user::get)).build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        user.set("bob");
+        CompletableFuture<Config> second = callBlocking(() -> api.config("foo"));
+        fixture.releaseResponses();
+
+        then(second.join()).isEqualTo(first.join()).isNotSameAs(first.join());
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldDeduplicateQueriesWithSameDynamicHeaders() throws Exception {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().header(new GraphQlClientHeader("User", () -> "alice")).build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.config("foo"));
+        fixture.releaseResponses();
+
+        then(second.join()).isSameAs(first.join());
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+    @Test void shouldEvaluateDynamicHeadersOnce() {
+        AtomicInteger evaluations = new AtomicInteger();
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        ConfigApi api = fixture.builder()
+            .header(new GraphQlClientHeader("User", () -> "user-" + evaluations.incrementAndGet()))
+            .build(ConfigApi.class);
+
+        api.config("foo");
+
+        then(evaluations).hasValue(1);
+        then(fixture.sentHeader("User")).isEqualTo("user-1");
+    }
+
+    @Test void shouldNotDeduplicateMutations() throws Exception {
+        fixture.returnsData("'update':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.update("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.update("foo"));
+        fixture.releaseResponses();
+
+        then(first.join()).isEqualTo(new Config("x", 1));
+        then(second.join()).isEqualTo(new Config("x", 1));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldNotDeduplicateWhenDisabled() throws Exception {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().singleFlight(false).build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.config("foo"));
+        fixture.releaseResponses();
+
+        then(first.join()).isEqualTo(new Config("x", 1));
+        then(second.join()).isEqualTo(new Config("x", 1));
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+
+    @Test void shouldShareErrors() throws Exception {
+        fixture.returns(Response.ok("{\"errors\":[{\"message\":\"failed\"}]}").build());
+        fixture.holdResponses();
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        CompletableFuture<Config> first = callBlocking(() -> api.config("foo"));
+        CompletableFuture<Config> second = callBlocking(() -> api.config("foo"));
+        fixture.releaseResponses();
+
+        then(catchThrowableOfType(first::join, CompletionException.class)).hasCauseInstanceOf(GraphQlClientException.class);
+        then(catchThrowableOfType(second::join, CompletionException.class)).hasCauseInstanceOf(GraphQlClientException.class);
+        then(fixture.requestCount()).isEqualTo(1);
+    }
+
+    @Test void shouldNotCacheCompletedQueries() {
+        fixture.returnsData("'config':{'value':'x','version':1}");
+        ConfigApi api = fixture.builder().build(ConfigApi.class);
+
+        Config first = api.config("foo");
+        Config second = api.config("foo");
+
+        then(first).isEqualTo(second).isNotSameAs(second);
+        then(fixture.requestCount()).isEqualTo(2);
+    }
+}
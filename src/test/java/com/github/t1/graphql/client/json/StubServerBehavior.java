@@ -0,0 +1,98 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import com.github.t1.graphql.client.json.LoadDriver.Hero;
+import com.github.t1.graphql.client.json.LoadDriver.HeroesApi;
+import com.github.t1.graphql.client.json.LoadDriver.Report;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class StubServerBehavior {
+    private final GraphQlStubServer server = GraphQlStubServer.start();
+    private final Client client = ((ResteasyClientBuilder) ClientBuilder.newBuilder()).connectionPoolSize(4).build();
+
+    @AfterEach void stop() {
+        client.close();
+        server.close();
+    }
+
+    private GraphQlClientBuilder builder() {
+        return GraphQlClientBuilder.newBuilder().endpoint(server.getEndpoint()).client(client);
+    }
+
+    interface GreetingApi {
+        String greeting(String who);
+    }
+
+    @Test void shouldCallStubServer() {
+        server.respondData("\"greeting\":\"hi, foo\"");
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+        then(server.getRequests()).containsExactly("{\"query\":\"query { greeting(who: \\\"foo\\\") }\"}");
+    }
+
+    @Test void shouldGetFromStubServer() {
+        server.respondData("\"greeting\":\"hi, foo\"");
+        GreetingApi api = builder().httpGet(true).build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+        then(server.getRequests()).containsExactly("query=query%20%7B%20greeting%28who%3A%20%22foo%22%29%20%7D");
+    }
+
+    @Test void shouldReadLargeGeneratedResponse() {
+        server.respondHeroes("heroes", 1000);
+        HeroesApi api = builder().build(HeroesApi.class);
+
+        List<Hero> heroes = api.heroes(1000);
+
+        then(heroes).hasSize(1000);
+        then(heroes.get(999).name).isEqualTo("Hero 999");
+        then(heroes.get(999).abilities).containsExactly("flying", "swimming");
+    }
+
+    @Test void shouldDriveLoadThroughRealProxy() throws Exception {
+        server.respondHeroes("heroes", 10).latency(Duration.ofMillis(1));
+        HeroesApi api = builder().build(HeroesApi.class);
+
+        Report report = new LoadDriver(4, 5, 25).run(() -> api.heroes(10));
+
+        then(report.getCalls()).isEqualTo(100);
+        then(report.getFailures()).isZero();
+        then(report.latency(50)).isGreaterThanOrEqualTo(Duration.ofMillis(1));
+        then(report.latency(99)).isGreaterThanOrEqualTo(report.latency(50));
+        then(report.latency(99.9)).isGreaterThanOrEqualTo(report.latency(99));
+        then(report.getCallsPerSecond()).isPositive();
+        then(report.getAllocatedBytesPerCall()).isPositive();
+        then(server.getRequests()).hasSize(4 * 5 + 100);
+    }
+
+    @Test void shouldKeepFailuresOutOfLatencies() throws Exception {
+        server.respondHeroes("heroes", 10).latency(Duration.ofMillis(2));
+        HeroesApi api = builder().build(HeroesApi.class);
+        AtomicInteger counter = new AtomicInteger();
+
+        Report report = new LoadDriver(1, 0, 10).run(() -> {
+            if (counter.incrementAndGet() % 2 == 0)
+                throw new RuntimeException("fails fast");
+            api.heroes(10);
+        });
+
+        then(report.getCalls()).isEqualTo(10);
+        then(report.getFailures()).isEqualTo(5);
+        then(report.latency(0)).isGreaterThanOrEqualTo(Duration.ofMillis(2));
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import com.github.t1.graphql.client.api.GraphQlClientHeader;
+import com.github.t1.graphql.client.json.InMemoryTransport.InMemoryResponse;
+import com.github.t1.graphql.client.spi.GraphQlTransportRequest;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static com.github.t1.graphql.client.json.InMemoryTransport.body;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TransportBehavior {
+    private final List<GraphQlTransportRequest> requests = new ArrayList<>();
+    private int status = 200;
+    private String responseBody;
+    /** Answers all requests with the same response */
+    private final InMemoryTransport transport = new InMemoryTransport(request -> {
+        synchronized (requests) {
+            requests.add(request);
+        }
+        return new InMemoryResponse(status, responseBody);
+    });
+
+    private GraphQlClientBuilder builder() {
+        return GraphQlClientBuilder.newBuilder().endpoint("urn:dummy-endpoint").transport(transport);
+    }
+
+    interface GreetingApi {
+        String greeting(String who);
+
+        CompletionStage<String> greetingAsync(String who);
+    }
+
+    @Test void shouldPostWithCustomTransport() {
+        responseBody = "{\"data\":{\"greeting\":\"hi, foo\"}}";
+        GreetingApi api = builder().header(new GraphQlClientHeader("H1", "V1")).build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+        then(requests).hasSize(1);
+        GraphQlTransportRequest request = requests.get(0);
+        then(request.getMethod()).isEqualTo("POST");
+        then(request.getUri()).isEqualTo(URI.create("urn:dummy-endpoint"));
+        then(request.getQueryParameters()).isEmpty();
+        then(request.getHeaders()).containsEntry("H1", singletonList("V1"));
+        then(request.getContentEncoding()).isNull();
+        then(body(request)).isEqualTo("{\"query\":\"query { greeting(who: \\\"foo\\\") }\"}");
+    }
+
+    @Test void shouldGetWithCustomTransport() {
+        responseBody = "{\"data\":{\"greeting\":\"hi, foo\"}}";
+        GreetingApi api = builder().httpGet(true).build(GreetingApi.class);
+
+        api.greeting("foo");
+
+        GraphQlTransportRequest request = requests.get(0);
+        then(request.getMethod()).isEqualTo("GET");
+        then(request.getQueryParameters()).containsOnlyKeys("query");
+        then(request.getBody()).isNull();
+    }
+
+    @Test void shouldCallAsyncWithCustomTransport() {
+        responseBody = "{\"data\":{\"greetingAsync\":\"hi, foo\"}}";
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        String greeting = api.greetingAsync("foo").toCompletableFuture().join();
+
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldFailOnStatusFromCustomTransport() {
+        status = 500;
+        responseBody = "boom";
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        GraphQlClientException thrown = catchThrowableOfType(() -> api.greeting("foo"), GraphQlClientException.class);
+
+        then(thrown).hasMessage("expected successful status code but got 500 Failed:\nboom");
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.api.GraphQlClientApi;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.microprofile.graphql.Mutation;
+import org.eclipse.microprofile.graphql.NonNull;
+import org.junit.jupiter.api.Test;
+
+import javax.json.JsonArray;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class VariablesBehavior {
+    private final GraphQlClientFixture fixture = new GraphQlClientFixture();
+
+    interface ParamApi {
+        String greeting(String who);
+    }
+
+    @Test void shouldCallParamQuery() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().variables(true).build(ParamApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(fixture.document()).isEqualTo("query greeting($who: String) { greeting(who: $who) }");
+        then(fixture.variables()).isEqualTo("{'who':'foo'}");
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldNotEscapeParamScalarQuery() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().variables(true).build(ParamApi.class);
+
+        api.greeting("foo\"bar'\n");
+
+        then(fixture.document()).isEqualTo("query greeting($who: String) { greeting(who: $who) }");
+        then(fixture.variables()).isEqualTo("{'who':'foo\\'bar'\\n'}");
+    }
+
+    @Test void shouldCallNullParamQuery() {
+        fixture.returnsData("'greeting':'hi, foo'");
+        ParamApi api = fixture.builder().variables(true).build(ParamApi.class);
+
+        api.greeting(null);
+
+        then(fixture.variables()).isEqualTo("{'who':null}");
+    }
+
+
+    interface NoParamApi {
+        String greeting();
+    }
+
+    @Test void shouldCallNoParamQueryWithoutVariables() {
+        fixture.returnsData("'greeting':'hi'");
+        NoParamApi api = fixture.builder().variables(true).build(NoParamApi.class);
+
+        api.greeting();
+
+        then(fixture.document()).isEqualTo("query { greeting }");
+        then(fixture.variables()).isNull();
+    }
+
+
+    @GraphQlClientApi(variables = true)
+    interface AnnotatedParamsApi {
+        String greeting(@NonNull String who, int count, long big, BigDecimal decimal, boolean really);
+    }
+
+    @Test void shouldCallAnnotatedParamsQuery() {
+        fixture.returnsData("'greeting':'hi, foo 3'");
+        AnnotatedParamsApi api = fixture.builder().build(AnnotatedParamsApi.class);
+
+        api.greeting("foo", 3, 123456789012L, new BigDecimal("12.34"), true);
+
+        then(fixture.document()).isEqualTo("query greeting(" +
+            "$who: String!, $count: Int!, $big: BigInteger!, $decimal: BigDecimal, $really: Boolean!) { " +
+            "greeting(who: $who, count: $count, big: $big, decimal: $decimal, really: $really) }");
+        then(fixture.variables()).isEqualTo("{'who':'foo','count':3,'big':123456789012,'decimal':12.34,'really':true}");
+    }
+
+    @Test void shouldOverrideAnnotatedVariablesInBuilder() {
+        fixture.returnsData("'greeting':'hi, foo 3'");
+        AnnotatedParamsApi api = fixture.builder().variables(false).build(AnnotatedParamsApi.class);
+
+        api.greeting("foo", 3, 4, BigDecimal.ONE, true);
+
+        then(fixture.query()).isEqualTo("greeting(who: 'foo', count: 3, big: 4, decimal: 1, really: true)");
+        then(fixture.variables()).isNull();
+    }
+
+
+    interface ObjectParamApi {
+        @Mutation Greeting say(Greeting greet);
+    }
+
+    @AllArgsConstructor @NoArgsConstructor
+    @Data static class Greeting {
+        String text;
+        int count;
+    }
+
+    @Test void shouldCallObjectParamMutation() {
+        fixture.returnsData("'say':{'text':'ho','count':3}");
+        ObjectParamApi api = fixture.builder().variables(true).build(ObjectParamApi.class);
+
+        Greeting greeting = api.say(new Greeting("hi", 5));
+
+        then(fixture.document()).isEqualTo("mutation say($greet: GreetingInput) { say(greet: $greet) {text count} }");
+        then(fixture.variables()).isEqualTo("{'greet':{'text':'hi','count':5}}");
+        then(greeting).isEqualTo(new Greeting("ho", 3));
+    }
+
+
+    interface BulkApi {
+        @Mutation int importGreetings(List<Greeting> greetings);
+    }
+
+    @Test void shouldCallBulkMutation() {
+        fixture.returnsData("'importGreetings':10000");
+        BulkApi api = fixture.builder().variables(true).build(BulkApi.class);
+        List<Greeting> greetings = IntStream.range(0, 10_000).mapToObj(i -> new Greeting("hi" + i, i)).collect(toList());
+
+        int count = api.importGreetings(greetings);
+
+        then(fixture.document()).isEqualTo("mutation importGreetings($greetings: [GreetingInput]) { importGreetings(greetings: $greetings) }");
+        JsonArray sent = fixture.requestJson().getJsonObject("variables").getJsonArray("greetings");
+        then(sent).hasSize(10_000);
+        then(sent.get(9_999).toString()).isEqualTo("{\"text\":\"hi9999\",\"count\":9999}");
+        then(count).isEqualTo(10_000);
+    }
+
+
+    interface ArrayParamApi {
+        boolean greetings(List<@NonNull String> greets, List<Greeting> objects, int[] counts);
+    }
+
+    @Test void shouldCallArrayParamQuery() {
+        fixture.returnsData("'greetings':true");
+        ArrayParamApi api = fixture.builder().variables(true).build(ArrayParamApi.class);
+
+        boolean success = api.greetings(asList("hi", "ho"), asList(new Greeting("hi", 5), new Greeting("ho", 3)), new int[]{1, 2});
+
+        then(fixture.document()).isEqualTo("query greetings(" +
+            "$greets: [String!], $objects: [GreetingInput], $counts: [Int!]) { " +
+            "greetings(greets: $greets, objects: $objects, counts: $counts) }");
+        then(fixture.variables()).isEqualTo("{'greets':['hi','ho']," +
+            "'objects':[{'text':'hi','count':5},{'text':'ho','count':3}]," +
+            "'counts':[1,2]}");
+        then(success).isTrue();
+    }
+
+
+    enum Episode {NEWHOPE, EMPIRE, JEDI}
+
+    interface EnumParamApi {
+        String hero(Episode episode);
+    }
+
+    @Test void shouldCallEnumParamQuery() {
+        fixture.returnsData("'hero':'Luke'");
+        EnumParamApi api = fixture.builder().variables(true).build(EnumParamApi.class);
+
+        api.hero(Episode.JEDI);
+
+        then(fixture.document()).isEqualTo("query hero($episode: Episode) { hero(episode: $episode) }");
+        then(fixture.variables()).isEqualTo("{'episode':'JEDI'}");
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.t1.graphql.client.json;
+
+import com.github.t1.graphql.client.HttpClientTransport;
+import com.github.t1.graphql.client.api.GraphQlClientBuilder;
+import com.github.t1.graphql.client.api.GraphQlClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class HttpClientTransportBehavior {
+    private final GraphQlStubServer server = GraphQlStubServer.start();
+
+    @AfterEach void stop() { server.close(); }
+
+    private GraphQlClientBuilder builder() {
+        return GraphQlClientBuilder.newBuilder().endpoint(server.getEndpoint()).transport(new HttpClientTransport());
+    }
+
+    interface GreetingApi {
+        String greeting(String who);
+    }
+
+    interface AsyncGreetingApi {
+        CompletionStage<String> greeting(String who);
+    }
+
+    @Test void shouldBeAvailable() {
+        then(HttpClientTransport.isAvailable()).isTrue();
+    }
+
+    @Test void shouldPostToStubServer() {
+        server.respondData("\"greeting\":\"hi, foo\"");
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+        then(server.getRequests()).containsExactly("{\"query\":\"query { greeting(who: \\\"foo\\\") }\"}");
+    }
+
+    @Test void shouldGetFromStubServer() {
+        server.respondData("\"greeting\":\"hi, foo\"");
+        GreetingApi api = builder().httpGet(true).build(GreetingApi.class);
+
+        String greeting = api.greeting("foo");
+
+        then(greeting).isEqualTo("hi, foo");
+        then(server.getRequests()).containsExactly("query=query%20%7B%20greeting%28who%3A%20%22foo%22%29%20%7D");
+    }
+
+    @Test void shouldSendLargeRequest() {
+        String who = "x".repeat(1_000_000);
+        server.respondData("\"greeting\":\"hi\"");
+        GreetingApi api = builder().build(GreetingApi.class);
+
+        String greeting = api.greeting(who);
+
+        then(greeting).isEqualTo("hi");
+        then(server.getRequests()).containsExactly("{\"query\":\"query { greeting(who: \\\"" + who + "\\\") }\"}");
+    }
+
+    @Test void shouldCallStubServerAsync() throws Exception {
+        server.respondData("\"greeting\":\"hi, foo\"");
+        AsyncGreetingApi api = builder().build(AsyncGreetingApi.class);
+
+        String greeting = api.greeting("foo").toCompletableFuture().get();
+
+        then(greeting).isEqualTo("hi, foo");
+    }
+
+    @Test void shouldFailToSendToStoppedServer() {
+        GreetingApi api = builder().build(GreetingApi.class);
+        server.close();
+
+        GraphQlClientException thrown = catchThrowableOfType(() -> api.greeting("foo"), GraphQlClientException.class);
+
+        then(thrown).hasMessage("can't send request to " + server.getEndpoint());
+    }
+
+    @Test void shouldFailToSendAsyncToStoppedServer() {
+        AsyncGreetingApi api = builder().build(AsyncGreetingApi.class);
+        server.close();
+
+        ExecutionException thrown = catchThrowableOfType(() -> api.greeting("foo").toCompletableFuture().get(),
+            ExecutionException.class);
+
+        then(thrown.getCause()).isInstanceOf(GraphQlClientException.class)
+            .hasMessage("can't send request to " + server.getEndpoint());
+    }
+}